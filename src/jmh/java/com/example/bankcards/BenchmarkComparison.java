@@ -0,0 +1,83 @@
+package com.example.bankcards;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class BenchmarkComparison {
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        int width = 2 + current.keySet().stream().mapToInt(String::length).max().orElse(0);
+        String row = "%-" + width + "s %14s %14s %9s%n";
+        String compared = "%-" + width + "s %14.3f %14.3f %+8.1f%%%s%n";
+        int regressions = 0;
+        System.out.printf(row, "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            if (before == null) {
+                System.out.printf(row, entry.getKey(), "-", String.format("%.3f", score(after)), "new");
+                continue;
+            }
+            double change = (score(after) - score(before)) / score(before) * 100;
+            double worsening = higherIsBetter(after) ? -change : change;
+            boolean regression = worsening > threshold
+                    && Math.abs(score(after) - score(before)) > error(after) + error(before);
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf(compared, entry.getKey(), score(before), score(after), change,
+                    regression ? "  REGRESSION" : "");
+        }
+        baseline.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> System.out.printf(row, key, String.format("%.3f", score(baseline.get(key))), "-", "removed"));
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new TreeMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            results.put(key(result), result);
+        }
+        return results;
+    }
+
+    private static String key(JsonNode result) {
+        Map<String, String> params = new LinkedHashMap<>();
+        result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+        String name = result.path("benchmark").asText() + " [" + result.path("mode").asText() + "]";
+        return params.isEmpty() ? name : name + " " + params;
+    }
+
+    private static boolean higherIsBetter(JsonNode result) {
+        return "thrpt".equals(result.path("mode").asText());
+    }
+
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static double error(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
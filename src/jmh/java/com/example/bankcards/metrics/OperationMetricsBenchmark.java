@@ -0,0 +1,64 @@
+package com.example.bankcards.metrics;
+
+import com.example.bankcards.service.HashService;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationMetricsBenchmark {
+    private static final String SECRET = "fjk93jf9w84jf9w4jf9834jf9wjf3";
+    private static final String NUMBER = "4111111111111111";
+
+    private HashService direct;
+    private HashService timed;
+
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) Duration.ofNanos(1000).toNanos())
+                        .maximumExpectedValue((double) Duration.ofSeconds(1).toNanos())
+                        .build()
+                        .merge(config);
+            }
+        });
+        direct = new HashService(SECRET, false);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new HashService(SECRET, false));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new OperationMetricsAspect(registry));
+        timed = factory.getProxy();
+    }
+
+    @Benchmark
+    public String direct() {
+        return direct.hmacSha256(NUMBER);
+    }
+
+    @Benchmark
+    public String timed() {
+        return timed.hmacSha256(NUMBER);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String timedContended() {
+        return timed.hmacSha256(NUMBER);
+    }
+}
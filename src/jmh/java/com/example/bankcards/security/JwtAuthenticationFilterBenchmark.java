@@ -0,0 +1,99 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.RevokedTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.UserService;
+import com.example.bankcards.service.UserValidatorService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+    private static final String SIGNING_KEY = "53A73E5F1C4E0A2D3B5F2D784E6A1B423D6F247D1F6E5C3A596D635A75327855";
+
+    @Param({"database", "database-uncached", "token"})
+    public String principalSource;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletRequest revokedRequest;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (servletRequest, servletResponse) -> {
+    };
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService(SIGNING_KEY, Duration.ofMinutes(15));
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .username("benchmark-user")
+                .email("benchmark@example.com")
+                .password("$2a$10$hash")
+                .role(Role.ROLE_USER)
+                .build();
+
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        PrincipalCache principalCache = new PrincipalCache("database-uncached".equals(principalSource) ? 0 : 10_000,
+                Duration.ofMinutes(5));
+        UserService userService = new UserService(userRepository,
+                new UserValidatorService(userRepository, "not found", "not found", "exists", "exists"), principalCache);
+
+        String revokedToken = jwtService.generateToken(user);
+        Claims revokedClaims = jwtService.parseClaims(revokedToken);
+        RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class, withSettings().stubOnly());
+        when(revokedTokenRepository.existsById(UUID.fromString(revokedClaims.getId()))).thenReturn(true);
+        TokenRevocationService tokenRevocationService = new TokenRevocationService(revokedTokenRepository,
+                new SimpleMeterRegistry(), 100_000, 0.001, Duration.ofSeconds(5));
+        tokenRevocationService.revoke(UUID.fromString(revokedClaims.getId()), revokedClaims.getExpiration().toInstant());
+
+        filter = new JwtAuthenticationFilter(jwtService, userService, principalCache, tokenRevocationService,
+                principalSource.startsWith("database") ? "database" : "token");
+        request = request(jwtService.generateToken(user));
+        revokedRequest = request(revokedToken);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws Exception {
+        return doFilter(request);
+    }
+
+    @Benchmark
+    public Authentication rejectRevoked() throws Exception {
+        return doFilter(revokedRequest);
+    }
+
+    private Authentication doFilter(MockHttpServletRequest servletRequest) throws Exception {
+        filter.doFilter(servletRequest, response, chain);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/card");
+        request.addHeader(JwtAuthenticationFilter.HEADER_NAME, JwtAuthenticationFilter.BEARER_PREFIX + token);
+        return request;
+    }
+}
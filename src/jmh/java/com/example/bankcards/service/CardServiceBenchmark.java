@@ -0,0 +1,55 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardServiceBenchmark {
+    private static final int PAGE_SIZE = 50;
+
+    private CardService cardService;
+    private Card card;
+    private List<Card> page;
+
+    @Setup
+    public void setUp() {
+        cardService = new CardService(null, null, null, null, null, null, null, null, null);
+        card = card(0);
+        page = IntStream.range(0, PAGE_SIZE).mapToObj(CardServiceBenchmark::card).toList();
+    }
+
+    @Benchmark
+    public CardDto toCardDto() {
+        return cardService.toCardDto(card);
+    }
+
+    @Benchmark
+    public List<CardDto> toCardDtoPage() {
+        return page.stream().map(cardService::toCardDto).toList();
+    }
+
+    private static Card card(int index) {
+        return Card.builder()
+                .id(UUID.randomUUID())
+                .last4(String.format("%04d", index))
+                .owner("IVAN IVANOV")
+                .expiryMonth(12)
+                .expiryYear(2030)
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.valueOf(1000 + index))
+                .build();
+    }
+}
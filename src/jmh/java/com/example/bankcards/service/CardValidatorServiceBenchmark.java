@@ -0,0 +1,62 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.exception.CardExpiryDateException;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardValidatorServiceBenchmark {
+    private CardValidatorService cardValidatorService;
+    private Card validCard;
+    private Card expiredCard;
+
+    @Setup
+    public void setUp() {
+        cardValidatorService = new CardValidatorService("exists", null, "not found", "not found", "wrong owner",
+                "equal id", "not enough balance", "Invalid card expiry date", "Invalid card status",
+                "batch too large", 1000, Clock.systemDefaultZone());
+        int year = LocalDate.now().getYear();
+        validCard = card(year + 3);
+        expiredCard = card(year - 1);
+    }
+
+    @Benchmark
+    public boolean validateExpiryDate() {
+        cardValidatorService.validateExpiryDate(validCard);
+        return true;
+    }
+
+    @Benchmark
+    public boolean validateExpiryDateRejected() {
+        try {
+            cardValidatorService.validateExpiryDate(expiredCard);
+            return true;
+        } catch (CardExpiryDateException e) {
+            return false;
+        }
+    }
+
+    private static Card card(int expiryYear) {
+        return Card.builder()
+                .id(UUID.randomUUID())
+                .last4("1111")
+                .owner("IVAN IVANOV")
+                .expiryMonth(6)
+                .expiryYear(expiryYear)
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.TEN)
+                .build();
+    }
+}
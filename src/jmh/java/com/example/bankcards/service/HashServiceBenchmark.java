@@ -0,0 +1,45 @@
+package com.example.bankcards.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashServiceBenchmark {
+    private static final String SECRET = "fjk93jf9w84jf9w4jf9834jf9wjf3";
+    private static final String NUMBER = "4111111111111111";
+
+    private HashService hashService;
+
+    @Setup
+    public void setUp() {
+        hashService = new HashService(SECRET, true);
+    }
+
+    @Benchmark
+    public String hmacSha256() {
+        return hashService.hmacSha256(NUMBER);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String hmacSha256Contended() {
+        return hashService.hmacSha256(NUMBER);
+    }
+
+    @Benchmark
+    public String legacyHmacSha256() {
+        return hashService.legacyHmacSha256(NUMBER);
+    }
+
+    @Benchmark
+    public List<String> lookupHashes() {
+        return hashService.lookupHashes(NUMBER);
+    }
+}
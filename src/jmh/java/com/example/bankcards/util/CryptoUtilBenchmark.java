@@ -0,0 +1,74 @@
+package com.example.bankcards.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CryptoUtilBenchmark {
+    private static final byte[] KEY = "12345678901234567890123456789012".getBytes(StandardCharsets.UTF_8);
+    private static final String NUMBER = "4111111111111111";
+
+    private final SecureRandom random = new SecureRandom();
+    private CryptoUtil cryptoUtil;
+    private String ciphertext;
+    private String legacyCiphertext;
+
+    @Setup
+    public void setUp() throws Exception {
+        cryptoUtil = new CryptoUtil(KEY);
+        ciphertext = cryptoUtil.encrypt(NUMBER);
+        legacyCiphertext = encryptLegacy(NUMBER);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return cryptoUtil.encrypt(NUMBER);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return cryptoUtil.decrypt(ciphertext);
+    }
+
+    @Benchmark
+    public String decryptLegacyFormat() {
+        return cryptoUtil.decrypt(legacyCiphertext);
+    }
+
+    @Benchmark
+    public String encryptLegacy() throws Exception {
+        return encryptLegacy(NUMBER);
+    }
+
+    @Benchmark
+    public String decryptLegacy() throws Exception {
+        String[] parts = legacyCiphertext.split(":");
+        byte[] iv = Base64.getDecoder().decode(parts[0]);
+        byte[] encrypted = Base64.getDecoder().decode(parts[1]);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(KEY, "AES"), new GCMParameterSpec(128, iv));
+        return new String(cipher.doFinal(encrypted));
+    }
+
+    private String encryptLegacy(String plaintext) throws Exception {
+        byte[] iv = new byte[12];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(KEY, "AES"), new GCMParameterSpec(128, iv));
+        return Base64.getEncoder().encodeToString(iv)
+                + ":"
+                + Base64.getEncoder().encodeToString(cipher.doFinal(plaintext.getBytes()));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.bankcards.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+public class BankClient {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    public BankClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    public String signUp(String username, String email, String password) throws IOException, InterruptedException {
+        return token(expectOk(post("/auth/sign-up", null,
+                Map.of("username", username, "email", email, "password", password))));
+    }
+
+    public String signIn(String username, String password) throws IOException, InterruptedException {
+        return token(expectOk(post("/auth/sign-in", null, Map.of("username", username, "password", password))));
+    }
+
+    public void createCard(String adminToken, Map<String, Object> card) throws IOException, InterruptedException {
+        expectOk(post("/admin/card", adminToken, card));
+    }
+
+    public List<UUID> userCardIds(String adminToken, UUID userId) throws IOException, InterruptedException {
+        JsonNode cards = objectMapper.readTree(expectOk(get("/admin/card/user/" + userId, adminToken)).body());
+        return cards.findValuesAsText("id").stream().map(UUID::fromString).toList();
+    }
+
+    public HttpResponse<String> transfer(String token, UUID fromCardId, UUID toCardId, String amount)
+            throws IOException, InterruptedException {
+        return post("/transfer", token, Map.of("fromCardId", fromCardId, "toCardId", toCardId, "amount", amount));
+    }
+
+    public HttpResponse<String> cards(String token, String status, int page) throws IOException, InterruptedException {
+        return get("/card/" + status + "/" + page, token);
+    }
+
+    public HttpResponse<String> ticket(String token, UUID cardId) throws IOException, InterruptedException {
+        return post("/ticket", token, Map.of("cardId", cardId));
+    }
+
+    public UUID userId(String token) throws IOException {
+        String payload = token.split("\\.")[1];
+        JsonNode claims = objectMapper.readTree(Base64.getUrlDecoder().decode(payload));
+        return UUID.fromString(claims.path("id").asText());
+    }
+
+    private HttpResponse<String> get(String path, String token) throws IOException, InterruptedException {
+        return httpClient.send(request(path, token).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String token, Object body) throws IOException, InterruptedException {
+        return httpClient.send(request(path, token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> expectOk(HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(response.request().method() + " " + response.request().uri()
+                    + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+    private String token(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body()).path("token").asText();
+    }
+}
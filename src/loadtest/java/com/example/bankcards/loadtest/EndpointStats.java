@@ -0,0 +1,65 @@
+package com.example.bankcards.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class EndpointStats {
+    private static final int IO_ERROR = -1;
+    private final Recorder latencies = new Recorder(TimeUnit.MINUTES.toMicros(1), 3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    public void record(int status, long latencyNanos) {
+        latencies.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    public void recordIoError(long latencyNanos) {
+        record(IO_ERROR, latencyNanos);
+    }
+
+    public Snapshot snapshot(double seconds) {
+        Histogram histogram = latencies.getIntervalHistogram();
+        Map<String, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status == IO_ERROR ? "io" : String.valueOf(status), count.sumThenReset()));
+        long requests = histogram.getTotalCount();
+        long clientErrors = counts.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith("4"))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        long serverErrors = counts.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith("5") || entry.getKey().equals("io"))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        return new Snapshot(
+                requests,
+                requests / seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                requests == 0 ? 0 : 100.0 * clientErrors / requests,
+                requests == 0 ? 0 : 100.0 * serverErrors / requests,
+                counts);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    public record Snapshot(long requests,
+                           double throughput,
+                           double p50Millis,
+                           double p99Millis,
+                           double p999Millis,
+                           double maxMillis,
+                           double clientErrorPercent,
+                           double serverErrorPercent,
+                           Map<String, Long> statuses) {
+    }
+}
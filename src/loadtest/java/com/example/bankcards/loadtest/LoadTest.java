@@ -0,0 +1,257 @@
+package com.example.bankcards.loadtest;
+
+import com.example.bankcards.BankRestApplication;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.loadtest.LoadTestOptions.Endpoint;
+import com.example.bankcards.security.PasswordVerifier;
+import com.example.bankcards.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class LoadTest {
+    private static final int SEED_PARALLELISM = 8;
+    private static final String TRANSFER_AMOUNT = "0.01";
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1_000_000);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (options.cardsPerUser() < 2) {
+            throw new IllegalArgumentException("--cards-per-user must be at least 2 for transfers");
+        }
+        ConfigurableApplicationContext context = options.embedded() ? startEmbedded(options) : null;
+        try {
+            String baseUrl = context != null
+                    ? "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort()
+                    : options.baseUrl();
+            BankClient client = new BankClient(baseUrl);
+
+            long seedStartedAt = System.nanoTime();
+            List<Customer> customers = seed(client, options);
+            System.out.printf("Seeded %d users with %d cards each against %s in %.1f s%n", customers.size(),
+                    options.cardsPerUser(), baseUrl, (System.nanoTime() - seedStartedAt) / 1e9);
+
+            runStage(client, customers, options, options.concurrency().get(0), options.warmup().toNanos());
+            List<StageResult> stages = new ArrayList<>();
+            for (int concurrency : options.concurrency()) {
+                StageResult stage = runStage(client, customers, options, concurrency, options.stageDuration().toNanos());
+                print(stage);
+                stages.add(stage);
+            }
+            printSaturation(stages);
+            writeReport(options, baseUrl, stages);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startEmbedded(LoadTestOptions options) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        SpringApplication application = new SpringApplication(BankRestApplication.class);
+        application.setAdditionalProfiles("h2", "loadtest");
+        application.addInitializers(context -> context.getBeanFactory()
+                .registerSingleton("loadTestExcludeFilter", new TestConfigurationExcludeFilter()));
+        ConfigurableApplicationContext context = application.run("--server.port=0");
+        context.getBean(UserService.class).create(User.builder()
+                .username(options.adminUsername())
+                .email(options.adminUsername() + "@loadtest.local")
+                .password(context.getBean(PasswordVerifier.class).encode(options.adminPassword()))
+                .role(Role.ROLE_ADMIN)
+                .build());
+        return context;
+    }
+
+    private static List<Customer> seed(BankClient client, LoadTestOptions options) throws Exception {
+        String adminToken = client.signIn(options.adminUsername(), options.adminPassword());
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        long numberBase = ThreadLocalRandom.current().nextLong(100_000_000_000_000L);
+        int expiryYear = LocalDate.now().getYear() + 3;
+
+        List<Future<Customer>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(SEED_PARALLELISM)) {
+            for (int i = 0; i < options.users(); i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    String username = "lt_" + runId + "_" + index;
+                    String token = client.signUp(username, username + "@loadtest.local", "password_" + runId);
+                    UUID userId = client.userId(token);
+                    for (int card = 0; card < options.cardsPerUser(); card++) {
+                        Map<String, Object> request = new LinkedHashMap<>();
+                        request.put("number", String.format("4%015d", numberBase + (long) index * options.cardsPerUser() + card));
+                        request.put("owner", "LOAD TEST " + index);
+                        request.put("expiryMonth", 12);
+                        request.put("expiryYear", expiryYear);
+                        request.put("status", "ACTIVE");
+                        request.put("balance", INITIAL_BALANCE);
+                        request.put("userId", userId);
+                        client.createCard(adminToken, request);
+                    }
+                    return new Customer(token, client.userCardIds(adminToken, userId));
+                }));
+            }
+        }
+        List<Customer> customers = new ArrayList<>();
+        for (Future<Customer> future : futures) {
+            customers.add(future.get());
+        }
+        return customers;
+    }
+
+    private static StageResult runStage(BankClient client, List<Customer> customers, LoadTestOptions options,
+                                        int concurrency, long durationNanos) {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        options.mix().keySet().forEach(endpoint -> stats.put(endpoint, new EndpointStats()));
+        List<Endpoint> endpoints = new ArrayList<>(options.mix().keySet());
+        int[] cumulativeWeights = new int[endpoints.size()];
+        int totalWeight = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            totalWeight += options.mix().get(endpoints.get(i));
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + durationNanos;
+        int weightBound = totalWeight;
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        int roll = random.nextInt(weightBound);
+                        int pick = 0;
+                        while (cumulativeWeights[pick] <= roll) {
+                            pick++;
+                        }
+                        Endpoint endpoint = endpoints.get(pick);
+                        execute(client, customers.get(random.nextInt(customers.size())), endpoint, stats.get(endpoint));
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+        Map<String, EndpointStats.Snapshot> snapshots = new LinkedHashMap<>();
+        stats.forEach((endpoint, endpointStats) -> snapshots.put(endpoint.label(), endpointStats.snapshot(seconds)));
+        return new StageResult(concurrency, seconds, snapshots);
+    }
+
+    private static void execute(BankClient client, Customer customer, Endpoint endpoint, EndpointStats stats) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long startedAt = System.nanoTime();
+        try {
+            HttpResponse<String> response = switch (endpoint) {
+                case TRANSFER -> {
+                    int from = random.nextInt(customer.cardIds().size());
+                    int to = (from + 1 + random.nextInt(customer.cardIds().size() - 1)) % customer.cardIds().size();
+                    yield client.transfer(customer.token(), customer.cardIds().get(from), customer.cardIds().get(to),
+                            TRANSFER_AMOUNT);
+                }
+                case CARDS -> client.cards(customer.token(), "ACTIVE", 1);
+                case TICKET -> client.ticket(customer.token(), customer.nextTicketCard(random));
+            };
+            stats.record(response.statusCode(), System.nanoTime() - startedAt);
+        } catch (IOException e) {
+            stats.recordIoError(System.nanoTime() - startedAt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void print(StageResult stage) {
+        System.out.printf("%nconcurrency=%d, %.1f s%n", stage.concurrency(), stage.seconds());
+        System.out.printf("%-26s %9s %9s %9s %9s %9s %9s %7s %7s  %s%n",
+                "endpoint", "requests", "rps", "p50 ms", "p99 ms", "p999 ms", "max ms", "4xx %", "5xx %", "statuses");
+        stage.endpoints().forEach((label, snapshot) -> System.out.printf(
+                "%-26s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7.2f %7.2f  %s%n",
+                label, snapshot.requests(), snapshot.throughput(), snapshot.p50Millis(), snapshot.p99Millis(),
+                snapshot.p999Millis(), snapshot.maxMillis(), snapshot.clientErrorPercent(),
+                snapshot.serverErrorPercent(), snapshot.statuses()));
+    }
+
+    private static void printSaturation(List<StageResult> stages) {
+        System.out.printf("%n%-12s %12s %14s%n", "concurrency", "total rps", "worst p99 ms");
+        for (StageResult stage : stages) {
+            System.out.printf("%-12d %12.1f %14.2f%n", stage.concurrency(), stage.throughput(), stage.worstP99Millis());
+        }
+    }
+
+    private static void writeReport(LoadTestOptions options, String baseUrl, List<StageResult> stages) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("baseUrl", baseUrl);
+        report.put("users", options.users());
+        report.put("cardsPerUser", options.cardsPerUser());
+        report.put("mix", options.mix());
+        report.put("stages", stages);
+        File file = new File(options.report());
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.printf("%nReport written to %s%n", file.getPath());
+    }
+
+    private record Customer(String token, List<UUID> cardIds, Queue<UUID> freshTicketCards) {
+        private Customer(String token, List<UUID> cardIds) {
+            this(token, cardIds, new ConcurrentLinkedQueue<>(cardIds));
+        }
+
+        private UUID nextTicketCard(ThreadLocalRandom random) {
+            UUID cardId = freshTicketCards.poll();
+            return cardId != null ? cardId : cardIds.get(random.nextInt(cardIds.size()));
+        }
+    }
+
+    public record StageResult(int concurrency, double seconds, Map<String, EndpointStats.Snapshot> endpoints) {
+        public double throughput() {
+            return endpoints.values().stream().mapToDouble(EndpointStats.Snapshot::throughput).sum();
+        }
+
+        public double worstP99Millis() {
+            return endpoints.values().stream().mapToDouble(EndpointStats.Snapshot::p99Millis).max().orElse(0);
+        }
+    }
+
+    private static class TestConfigurationExcludeFilter extends TypeExcludeFilter {
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getAnnotationMetadata().isAnnotated(TestConfiguration.class.getName());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other != null && getClass() == other.getClass();
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
+    }
+}
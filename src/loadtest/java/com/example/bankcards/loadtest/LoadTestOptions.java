@@ -0,0 +1,75 @@
+package com.example.bankcards.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public record LoadTestOptions(String baseUrl,
+                              String adminUsername,
+                              String adminPassword,
+                              int users,
+                              int cardsPerUser,
+                              List<Integer> concurrency,
+                              Duration warmup,
+                              Duration stageDuration,
+                              Map<Endpoint, Integer> mix,
+                              String report) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return new LoadTestOptions(
+                values.getOrDefault("base-url", ""),
+                values.getOrDefault("admin-username", "loadtest_admin"),
+                values.getOrDefault("admin-password", "loadtest_admin_password"),
+                Integer.parseInt(values.getOrDefault("users", "50")),
+                Integer.parseInt(values.getOrDefault("cards-per-user", "4")),
+                Arrays.stream(values.getOrDefault("concurrency", "8,16,32,64").split(","))
+                        .map(String::strip)
+                        .map(Integer::parseInt)
+                        .toList(),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                DurationStyle.detectAndParse(values.getOrDefault("stage-duration", "30s")),
+                parseMix(values.getOrDefault("mix", "transfer=70,cards=25,ticket=5")),
+                values.getOrDefault("report", "target/loadtest-result.json"));
+    }
+
+    public boolean embedded() {
+        return baseUrl.isBlank();
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            weights.put(Endpoint.valueOf(parts[0].strip().toUpperCase()), Integer.parseInt(parts[1].strip()));
+        }
+        return weights;
+    }
+
+    public enum Endpoint {
+        TRANSFER("POST /transfer"),
+        CARDS("GET /card/{status}/{page}"),
+        TICKET("POST /ticket");
+
+        private final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+}
@@ -4,11 +4,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.charset.StandardCharsets;
+
 @Configuration
 public class EncryptionConfig {
 
     @Bean
     public byte[] cardEncryptionKey(@Value("${springdoc.card-encryption-key}") String key) {
-        return key.getBytes();
+        return key.getBytes(StandardCharsets.UTF_8);
     }
 }
@@ -3,17 +3,26 @@ package com.example.bankcards.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardIssuanceResultDto;
+import com.example.bankcards.dto.CardPageDto;
 import com.example.bankcards.dto.CreateCardRequest;
-import com.example.bankcards.dto.TicketDto;
+import com.example.bankcards.dto.TicketPageDto;
+import com.example.bankcards.service.CardIssuanceService;
+import com.example.bankcards.service.CardListingService;
 import com.example.bankcards.service.CardService;
-import com.example.bankcards.service.TicketService;
+import com.example.bankcards.service.IdempotencyService;
+import com.example.bankcards.service.TicketListingService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,13 +32,31 @@ import java.util.UUID;
 @RequiredArgsConstructor
 @Tag(name = "Администратор")
 public class AdminController {
-    private final TicketService ticketService;
+    private final TicketListingService ticketListingService;
     private final CardService cardService;
+    private final CardListingService cardListingService;
+    private final CardIssuanceService cardIssuanceService;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping("/card")
-    @Operation(summary = "Получение всех банковских карт")
-    public ResponseEntity<List<CardDto>> allCards() {
-        return ResponseEntity.ok(cardService.findAllCards());
+    @Operation(summary = "Постраничное получение всех банковских карт",
+            description = "Карты упорядочены по ID. Для следующей страницы передайте nextCursor в параметре after")
+    public ResponseEntity<CardPageDto> allCards(
+            @Parameter(description = "ID карты, после которой начинается страница")
+            @RequestParam(required = false) UUID after,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(required = false) Integer size) {
+
+        return ResponseEntity.ok(cardListingService.findCardsPage(after, size));
+    }
+
+    @GetMapping(value = "/card/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Потоковая выгрузка всех банковских карт",
+            description = "Каждая карта передается отдельной строкой JSON по мере чтения из базы")
+    public ResponseEntity<StreamingResponseBody> streamAllCards() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(cardListingService::streamAllCards);
     }
 
     @GetMapping("/card/user/{userID}")
@@ -52,13 +79,34 @@ public class AdminController {
     }
 
     @PostMapping("/card")
-    @Operation(summary = "Создание новой банковской карты")
+    @Operation(summary = "Создание новой банковской карты",
+            description = "Повторный запрос с тем же Idempotency-Key возвращает сохраненный результат без повторного создания")
     public ResponseEntity<String> createCard(
+            @Parameter(description = "Ключ идемпотентности запроса")
+            @RequestHeader(value = UserController.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Parameter(description = "Данные для создания карты")
             @RequestBody @Valid CreateCardRequest card) {
 
-        cardService.createCard(card);
-        return ResponseEntity.ok("Карта успешно создана");
+        return idempotencyService.execute("card", idempotencyKey, card, () -> {
+            cardService.createCard(card);
+            return ResponseEntity.ok("Карта успешно создана");
+        });
+    }
+
+    @PostMapping(value = "/card/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Массовый выпуск банковских карт из JSON",
+            description = "Принимает массив запросов на создание карт. Некорректные записи пропускаются и попадают в список ошибок. "
+                    + "Карты сохраняются порциями. Если тело запроса обрывается после первой сохраненной порции, "
+                    + "ответ содержит completed = false и число уже выпущенных карт")
+    public ResponseEntity<CardIssuanceResultDto> issueCardsFromJson(InputStream body) throws IOException {
+        return ResponseEntity.ok(cardIssuanceService.issueFromJson(body));
+    }
+
+    @PostMapping(value = "/card/bulk", consumes = "text/csv")
+    @Operation(summary = "Массовый выпуск банковских карт из CSV",
+            description = "Первая строка - заголовок. Колонки: number,owner,expiryMonth,expiryYear,status,balance,userId")
+    public ResponseEntity<CardIssuanceResultDto> issueCardsFromCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(cardIssuanceService.issueFromCsv(body));
     }
 
     @PatchMapping("/card/{cardId}/block")
@@ -82,8 +130,18 @@ public class AdminController {
     }
 
     @GetMapping("/ticket")
-    @Operation(summary = "Получение всех тикетов поддержки")
-    public ResponseEntity<List<TicketDto>> tickets() {
-        return ResponseEntity.ok(ticketService.getAllTickets());
+    @Operation(summary = "Постраничное получение тикетов поддержки",
+            description = "Тикеты упорядочены по ID. Для следующей страницы передайте nextCursor в параметре after")
+    public ResponseEntity<TicketPageDto> tickets(
+            @Parameter(description = "ID тикета, после которого начинается страница")
+            @RequestParam(required = false) UUID after,
+            @Parameter(description = "ID пользователя для фильтрации")
+            @RequestParam(required = false) UUID userId,
+            @Parameter(description = "ID карты для фильтрации")
+            @RequestParam(required = false) UUID cardId,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(required = false) Integer size) {
+
+        return ResponseEntity.ok(ticketListingService.findTicketsPage(after, userId, cardId, size));
     }
 }
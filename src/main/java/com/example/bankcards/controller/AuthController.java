@@ -1,13 +1,18 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.JwtAuthenticationResponse;
+import com.example.bankcards.dto.RefreshTokenRequest;
 import com.example.bankcards.dto.SignInRequest;
 import com.example.bankcards.dto.SignUpRequest;
 import com.example.bankcards.security.AuthenticationService;
+import com.example.bankcards.security.JwtAuthenticationFilter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -39,4 +44,30 @@ public class AuthController {
 
         return authenticationService.signIn(request);
     }
+
+    @Operation(summary = "Обновление токена доступа",
+            description = "Выдаёт новый токен доступа и новый токен обновления, переданный токен обновления становится недействительным")
+    @PostMapping("/refresh")
+    public JwtAuthenticationResponse refresh(
+            @Parameter(description = "Текущий токен обновления")
+            @RequestBody @Valid RefreshTokenRequest request) {
+
+        return authenticationService.refresh(request);
+    }
+
+    @Operation(summary = "Выход из системы",
+            description = "Отзывает токен обновления и, если передан заголовок Authorization, текущий токен доступа")
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @Parameter(description = "Токен обновления текущей сессии")
+            @RequestBody @Valid RefreshTokenRequest request,
+            @Parameter(description = "Токен доступа в формате Bearer")
+            @RequestHeader(value = JwtAuthenticationFilter.HEADER_NAME, required = false) String authorization) {
+
+        String accessToken = StringUtils.startsWith(authorization, JwtAuthenticationFilter.BEARER_PREFIX)
+                ? authorization.substring(JwtAuthenticationFilter.BEARER_PREFIX.length())
+                : null;
+        authenticationService.logout(request, accessToken);
+        return ResponseEntity.noContent().build();
+    }
 }
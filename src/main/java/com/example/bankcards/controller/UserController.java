@@ -1,20 +1,32 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardSliceDto;
 import com.example.bankcards.dto.MoneyTransferDto;
+import com.example.bankcards.dto.StatementDto;
 import com.example.bankcards.dto.TicketDto;
+import com.example.bankcards.dto.TicketRequestDto;
+import com.example.bankcards.dto.TransferResultDto;
 import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.service.CardListingService;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.IdempotencyService;
+import com.example.bankcards.service.LedgerService;
 import com.example.bankcards.service.TicketService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.time.Instant;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping
@@ -22,36 +34,90 @@ import java.util.List;
 @RequiredArgsConstructor
 @Tag(name = "Пользователь")
 public class UserController {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 
     private final CardService cardService;
     private final TicketService ticketService;
+    private final LedgerService ledgerService;
+    private final CardListingService cardListingService;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping("/card/{status}/{page}")
     @Operation(summary = "Получение карт пользователя по статусу и странице")
     public List<CardDto> getCards(
             @Parameter(description = "Номер страницы") @PathVariable("page") int page,
-            @Parameter(description = "Статус карты") @PathVariable("status") CardStatus cardStatus) {
+            @Parameter(description = "Статус карты") @PathVariable("status") CardStatus cardStatus,
+            @Parameter(description = "Размер страницы") @RequestParam(value = "size", required = false) Integer size) {
 
-        return cardService.getUsersCard(page, cardStatus);
+        return cardListingService.findUserCards(cardStatus, page, size).getCards();
+    }
+
+    @GetMapping("/card")
+    @Operation(summary = "Получение карт пользователя постранично",
+            description = "Без параметра status возвращаются карты во всех статусах. Общее количество карт не подсчитывается")
+    public CardSliceDto getAllCards(
+            @Parameter(description = "Статус карты") @RequestParam(value = "status", required = false) CardStatus cardStatus,
+            @Parameter(description = "Номер страницы") @RequestParam(value = "page", defaultValue = "1") int page,
+            @Parameter(description = "Размер страницы") @RequestParam(value = "size", required = false) Integer size) {
+
+        return cardListingService.findUserCards(cardStatus, page, size);
+    }
+
+    @GetMapping("/card/{cardId}/statement")
+    @Operation(summary = "Получение выписки по карте пользователя за период")
+    public StatementDto getStatement(
+            @Parameter(description = "ID карты") @PathVariable("cardId") UUID cardId,
+            @Parameter(description = "Начало периода")
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Конец периода, по умолчанию текущий момент")
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+
+        return ledgerService.getStatement(cardId, from, to != null ? to : Instant.now());
     }
 
     @PostMapping("/transfer")
-    @Operation(summary = "Перевод денежных средств между картами пользователя")
+    @Operation(summary = "Перевод денежных средств между картами пользователя",
+            description = "Повторный запрос с тем же Idempotency-Key возвращает сохраненный результат без повторного перевода")
     public ResponseEntity<String> transfer(
+            @Parameter(description = "Ключ идемпотентности запроса")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Parameter(description = "Данные для перевода средств")
             @RequestBody MoneyTransferDto moneyTransferDto) {
 
-        cardService.moneyTransfer(moneyTransferDto);
-        return ResponseEntity.ok("Перевод произведен успешно");
+        return idempotencyService.execute("transfer", idempotencyKey, moneyTransferDto, () -> {
+            cardService.moneyTransfer(moneyTransferDto);
+            return ResponseEntity.ok("Перевод произведен успешно");
+        });
+    }
+
+    @PostMapping("/transfer/batch")
+    @Operation(summary = "Пакетный перевод денежных средств между картами пользователя",
+            description = "Все переводы выполняются в одной транзакции. Для каждого перевода возвращается отдельный результат")
+    public List<TransferResultDto> transferBatch(
+            @Parameter(description = "Список переводов")
+            @RequestBody @Valid List<@Valid MoneyTransferDto> transfers) {
+
+        return cardService.moneyTransferBatch(transfers);
     }
 
     @PostMapping("/ticket")
-    @Operation(summary = "Создание тикета в службу поддержки для блокировки")
-    public ResponseEntity<String> createTicket(
+    @Operation(summary = "Создание тикета в службу поддержки для блокировки",
+            description = "Заявка сохраняется и обрабатывается асинхронно, результат доступен по ID тикета")
+    public ResponseEntity<TicketRequestDto> createTicket(
             @Parameter(description = "Данные тикета")
-            @RequestBody TicketDto ticket) {
+            @Valid @RequestBody TicketDto ticket) {
+
+        TicketRequestDto accepted = ticketService.submitTicket(ticket);
+        return ResponseEntity.accepted()
+                .location(URI.create("/ticket/" + accepted.getTicketId()))
+                .body(accepted);
+    }
+
+    @GetMapping("/ticket/{ticketId}")
+    @Operation(summary = "Получение статуса заявки на создание тикета")
+    public TicketRequestDto getTicketRequest(
+            @Parameter(description = "ID тикета") @PathVariable("ticketId") UUID ticketId) {
 
-        ticketService.createTicket(ticket);
-        return ResponseEntity.ok("Заявка успешно создана");
+        return ticketService.getTicketRequest(ticketId);
     }
 }
@@ -0,0 +1,21 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Ошибка выпуска карты из пакета")
+public class CardIssuanceErrorDto {
+
+    @Schema(description = "Порядковый номер карты в пакете, начиная с 0", example = "42")
+    private int index;
+
+    @Schema(description = "Причина отказа", example = "Card with this number already exists")
+    private String error;
+}
@@ -0,0 +1,42 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Результат пакетного выпуска карт")
+public class CardIssuanceResultDto {
+
+    @Schema(description = "Количество полученных карт", example = "10000")
+    private int received;
+
+    @Schema(description = "Количество выпущенных карт", example = "9998")
+    private int created;
+
+    @Schema(description = "Количество отклоненных карт", example = "2")
+    private int rejected;
+
+    @Schema(description = "Длительность выпуска в миллисекундах", example = "4200")
+    private long durationMillis;
+
+    @Schema(description = "Скорость выпуска, карт в секунду", example = "2380.5")
+    private double cardsPerSecond;
+
+    @Schema(description = "Запрос прочитан целиком. false - обработка остановлена на ошибке формата, "
+            + "записи начиная с индекса received не обработаны, выпущенные до этого карты сохранены", example = "true")
+    private boolean completed;
+
+    @Schema(description = "Причина остановки обработки, если completed = false", example = "Malformed card issuance request")
+    private String error;
+
+    @Schema(description = "Ошибки по отдельным картам, не более app.card.issuance.max-reported-errors")
+    private List<CardIssuanceErrorDto> errors;
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Страница банковских карт")
+public class CardPageDto {
+
+    @Schema(description = "Карты на странице")
+    private List<CardDto> cards;
+
+    @Schema(description = "ID последней карты на странице, передается в параметре after для получения следующей страницы",
+            example = "550e8400-e29b-41d4-a716-446655440000")
+    private UUID nextCursor;
+}
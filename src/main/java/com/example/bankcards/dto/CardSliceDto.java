@@ -0,0 +1,29 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Страница карт пользователя без подсчета общего количества")
+public class CardSliceDto {
+
+    @Schema(description = "Карты на странице")
+    private List<CardDto> cards;
+
+    @Schema(description = "Номер страницы, начиная с 1", example = "1")
+    private int page;
+
+    @Schema(description = "Размер страницы", example = "20")
+    private int size;
+
+    @Schema(description = "Есть ли следующая страница", example = "true")
+    private boolean hasNext;
+}
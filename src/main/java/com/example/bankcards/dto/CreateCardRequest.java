@@ -41,6 +41,7 @@ public class CreateCardRequest {
 
     @NotNull
     @DecimalMin("0.00")
+    @Digits(integer = 17, fraction = 2)
     @Schema(description = "Начальный баланс карты", example = "0.00")
     private BigDecimal balance;
 
@@ -0,0 +1,28 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Запись журнала операций по карте")
+public class LedgerEntryDto {
+
+    @Schema(description = "ID перевода, к которому относится запись", example = "f3a1c2d4-5b6e-4f78-91a3-cf7d9e2c1234")
+    private UUID transferId;
+
+    @Schema(description = "Сумма операции: отрицательная для списания, положительная для зачисления", example = "-1500.00")
+    private BigDecimal amount;
+
+    @Schema(description = "Время операции", example = "2026-01-15T10:15:30Z")
+    private Instant createdAt;
+}
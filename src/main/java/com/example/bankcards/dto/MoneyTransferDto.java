@@ -1,6 +1,7 @@
 package com.example.bankcards.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
@@ -28,6 +29,7 @@ public class MoneyTransferDto {
 
     @NotNull
     @Positive
+    @Digits(integer = 17, fraction = 2)
     @Schema(description = "Сумма перевода", example = "1500.00")
     private BigDecimal amount;
 }
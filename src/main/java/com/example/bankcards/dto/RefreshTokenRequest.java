@@ -0,0 +1,20 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Запрос с токеном обновления")
+public class RefreshTokenRequest {
+
+    @Schema(description = "Токен обновления", example = "q1w2e3r4t5y6u7i8o9p0a1s2d3f4g5h6j7k8l9z0x1c")
+    @Size(max = 100, message = "Длина токена обновления не должна превышать 100 символов")
+    @NotBlank(message = "Токен обновления не может быть пустым")
+    private String refreshToken;
+}
@@ -0,0 +1,38 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Выписка по карте за период")
+public class StatementDto {
+
+    @Schema(description = "ID карты", example = "550e8400-e29b-41d4-a716-446655440000")
+    private UUID cardId;
+
+    @Schema(description = "Начало периода", example = "2026-01-01T00:00:00Z")
+    private Instant from;
+
+    @Schema(description = "Конец периода", example = "2026-02-01T00:00:00Z")
+    private Instant to;
+
+    @Schema(description = "Баланс на начало периода", example = "15000.75")
+    private BigDecimal openingBalance;
+
+    @Schema(description = "Баланс на конец периода", example = "13500.75")
+    private BigDecimal closingBalance;
+
+    @Schema(description = "Операции за период")
+    private List<LedgerEntryDto> entries;
+}
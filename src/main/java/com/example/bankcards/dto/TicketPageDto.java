@@ -0,0 +1,25 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Страница тикетов поддержки")
+public class TicketPageDto {
+
+    @Schema(description = "Тикеты на странице")
+    private List<TicketSummaryDto> tickets;
+
+    @Schema(description = "ID последнего тикета на странице, передается в параметре after для получения следующей страницы",
+            example = "5c1f7a9e-2b3d-4e8f-9a10-7c6d5e4f3a21")
+    private UUID nextCursor;
+}
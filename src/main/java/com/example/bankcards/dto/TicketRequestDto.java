@@ -0,0 +1,37 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.TicketRequestStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Состояние заявки на создание тикета")
+public class TicketRequestDto {
+
+    @Schema(description = "ID заявки, он же ID создаваемого тикета", example = "5c1f7a9e-2b3d-4e8f-9a10-7c6d5e4f3a21")
+    private UUID ticketId;
+
+    @Schema(description = "ID карты, для которой создается тикет блокировки", example = "d290f1ee-6c54-4b01-90e6-d701748f0851")
+    private UUID cardId;
+
+    @Schema(description = "Статус обработки заявки", example = "PENDING")
+    private TicketRequestStatus status;
+
+    @Schema(description = "Причина отказа или ошибки обработки (статусы REJECTED и FAILED)", example = "Ticket with this card ID already exists")
+    private String error;
+
+    @Schema(description = "Время приема заявки", example = "2025-11-15T10:15:30Z")
+    private Instant createdAt;
+
+    @Schema(description = "Время обработки заявки", example = "2025-11-15T10:15:31Z")
+    private Instant processedAt;
+}
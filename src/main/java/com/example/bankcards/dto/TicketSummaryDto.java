@@ -0,0 +1,26 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Тикет поддержки")
+public class TicketSummaryDto {
+
+    @Schema(description = "ID тикета", example = "5c1f7a9e-2b3d-4e8f-9a10-7c6d5e4f3a21")
+    private UUID id;
+
+    @Schema(description = "ID пользователя, создавшего тикет", example = "9b2e4c6a-1d3f-4a5b-8c7d-0e1f2a3b4c5d")
+    private UUID userId;
+
+    @Schema(description = "ID карты, для которой создан тикет блокировки", example = "d290f1ee-6c54-4b01-90e6-d701748f0851")
+    private UUID cardId;
+}
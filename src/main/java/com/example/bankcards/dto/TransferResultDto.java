@@ -0,0 +1,36 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Результат перевода из пакета")
+public class TransferResultDto {
+
+    @Schema(description = "Порядковый номер перевода в пакете, начиная с 0", example = "0")
+    private int index;
+
+    @Schema(description = "ID карты, с которой осуществляется перевод", example = "f3a1c2d4-5b6e-4f78-91a3-cf7d9e2c1234")
+    private UUID fromCardId;
+
+    @Schema(description = "ID карты, на которую осуществляется перевод", example = "a7b2c6d8-9e10-4a5f-bb12-df3f4a6e7890")
+    private UUID toCardId;
+
+    @Schema(description = "Сумма перевода", example = "1500.00")
+    private BigDecimal amount;
+
+    @Schema(description = "Выполнен ли перевод", example = "true")
+    private boolean success;
+
+    @Schema(description = "Причина отказа", example = "Insufficient funds")
+    private String error;
+}
@@ -1,8 +1,9 @@
 package com.example.bankcards.entity;
 
-import com.example.bankcards.util.CardNumberEncryptor;
+import com.example.bankcards.util.EncryptionHolder;
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -14,16 +15,22 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "cards")
-public class Card {
+public class Card implements Persistable<UUID> {
     @Id
     @Column(name = "id", columnDefinition = "uuid")
     private UUID id;
 
-
     @Column(name = "number", nullable = false)
-    @Convert(converter = CardNumberEncryptor.class)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String encryptedNumber;
+
+    @Transient
     private String number;
 
+    @Column(name = "last4", nullable = false, length = 4)
+    private String last4;
+
     @Column(nullable = false)
     private String owner;
 
@@ -37,7 +44,7 @@ public class Card {
     @Column(nullable = false)
     private CardStatus status ;
 
-    @Column(nullable = false)
+    @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal balance;
 
     @Column(name = "number_hash", nullable = false, unique = true)
@@ -46,4 +53,52 @@ public class Card {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
-}
\ No newline at end of file
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+
+    public String getNumber() {
+        if (number == null && encryptedNumber != null) {
+            number = EncryptionHolder.getCrypto().decrypt(encryptedNumber);
+        }
+        return number;
+    }
+
+    public void setNumber(String number) {
+        this.number = number;
+        this.encryptedNumber = null;
+        this.last4 = lastFour(number);
+    }
+
+    public String getLast4() {
+        return last4 != null ? last4 : lastFour(getNumber());
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    private void markPersisted() {
+        persisted = true;
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void encryptNumber() {
+        if (encryptedNumber == null && number != null) {
+            encryptedNumber = EncryptionHolder.getCrypto().encrypt(number);
+        }
+        if (last4 == null) {
+            last4 = lastFour(number);
+        }
+    }
+
+    private static String lastFour(String number) {
+        return number == null ? null : number.substring(number.length() - 4);
+    }
+}
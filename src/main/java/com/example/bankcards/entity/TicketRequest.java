@@ -0,0 +1,72 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "ticket_requests")
+public class TicketRequest implements Persistable<UUID> {
+    @Id
+    @Column(name = "id", columnDefinition = "uuid")
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false, updatable = false, columnDefinition = "uuid")
+    private UUID userId;
+
+    @Column(name = "card_id", nullable = false, updatable = false, columnDefinition = "uuid")
+    private UUID cardId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private TicketRequestStatus status;
+
+    @Column(name = "error")
+    private String error;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    private void markPersisted() {
+        persisted = true;
+    }
+
+    public void complete(TicketRequestStatus status, String error, Instant processedAt) {
+        this.status = status;
+        this.error = error;
+        this.processedAt = processedAt;
+    }
+
+    public void recordFailedAttempt(int maxAttempts, String error, Instant failedAt) {
+        attempts++;
+        if (attempts >= maxAttempts) {
+            complete(TicketRequestStatus.FAILED, error, failedAt);
+        }
+    }
+}
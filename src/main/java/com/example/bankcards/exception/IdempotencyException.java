@@ -0,0 +1,7 @@
+package com.example.bankcards.exception;
+
+public class IdempotencyException extends BusinessException {
+    public IdempotencyException(String message) {
+        super("idempotencyKey", message);
+    }
+}
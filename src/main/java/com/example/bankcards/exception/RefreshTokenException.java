@@ -0,0 +1,7 @@
+package com.example.bankcards.exception;
+
+public class RefreshTokenException extends BusinessException {
+    public RefreshTokenException(String message) {
+        super("refreshToken", message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.exception;
+
+public class StatementPeriodException extends BusinessException {
+    public StatementPeriodException(String message) {
+        super("from", message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.exception;
+
+public class TicketNotFoundException extends TicketException {
+    public TicketNotFoundException(String message) {
+        super(message);
+    }
+}
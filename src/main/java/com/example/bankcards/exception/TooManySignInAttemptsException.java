@@ -0,0 +1,15 @@
+package com.example.bankcards.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+public class TooManySignInAttemptsException extends BusinessException {
+    @Getter
+    private final Duration retryAfter;
+
+    public TooManySignInAttemptsException(String message, Duration retryAfter) {
+        super("signIn", message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.bankcards.metrics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+@Endpoint(id = "hibernatecache")
+public class HibernateCacheEndpoint {
+    private final Statistics statistics;
+
+    public HibernateCacheEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public CacheStatistics cacheStatistics() {
+        Map<String, RegionStatistics> regions = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            regions.put(region, RegionStatistics.of(regionStatistics.getHitCount(), regionStatistics.getMissCount(),
+                    regionStatistics.getPutCount()));
+        }
+        return new CacheStatistics(
+                statistics.isStatisticsEnabled(),
+                RegionStatistics.of(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                        statistics.getSecondLevelCachePutCount()),
+                RegionStatistics.of(statistics.getNaturalIdCacheHitCount(), statistics.getNaturalIdCacheMissCount(),
+                        statistics.getNaturalIdCachePutCount()),
+                regions);
+    }
+
+    public record CacheStatistics(boolean statisticsEnabled,
+                                  RegionStatistics entities,
+                                  RegionStatistics naturalIds,
+                                  Map<String, RegionStatistics> regions) {
+    }
+
+    public record RegionStatistics(long hits, long misses, long puts, double hitRatio) {
+        static RegionStatistics of(long hits, long misses, long puts) {
+            long requests = hits + misses;
+            return new RegionStatistics(hits, misses, puts, requests == 0 ? 0 : (double) hits / requests);
+        }
+    }
+}
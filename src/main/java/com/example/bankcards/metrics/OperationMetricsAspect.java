@@ -0,0 +1,95 @@
+package com.example.bankcards.metrics;
+
+import com.example.bankcards.exception.BusinessException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class OperationMetricsAspect {
+    public static final String OPERATION_TIMER = "bank.operation";
+    public static final String CRYPTO_TIMER = "bank.crypto";
+    private static final String SUCCESS = "success";
+    private static final String CLIENT_ERROR = "client_error";
+    private static final String SERVER_ERROR = "server_error";
+    private static final String NO_EXCEPTION = "none";
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+    public OperationMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.example.bankcards.service.CardService.findCardsByUser(..))"
+            + " || execution(public * com.example.bankcards.service.CardService.createCard(..))"
+            + " || execution(public * com.example.bankcards.service.CardService.deleteCard(..))"
+            + " || execution(public * com.example.bankcards.service.CardService.blockCard(..))"
+            + " || execution(public * com.example.bankcards.service.CardService.activateCard(..))"
+            + " || execution(public * com.example.bankcards.service.CardService.moneyTransfer(..))"
+            + " || execution(public * com.example.bankcards.service.CardService.moneyTransferBatch(..))"
+            + " || execution(public * com.example.bankcards.service.TicketService.submitTicket(..))"
+            + " || execution(public * com.example.bankcards.service.TicketService.getTicketRequest(..))"
+            + " || execution(public * com.example.bankcards.service.TicketService.processBatch(..))"
+            + " || execution(public * com.example.bankcards.security.AuthenticationService.*(..))")
+    public Object timeOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(OPERATION_TIMER, joinPoint);
+    }
+
+    @Around("execution(public * com.example.bankcards.service.HashService.hmacSha256(..))"
+            + " || execution(public * com.example.bankcards.service.HashService.legacyHmacSha256(..))"
+            + " || execution(public * com.example.bankcards.service.HashService.lookupHashes(..))"
+            + " || execution(public * com.example.bankcards.util.CryptoUtil.encrypt(..))"
+            + " || execution(public * com.example.bankcards.util.CryptoUtil.decrypt(..))"
+            + " || execution(public * com.example.bankcards.security.JwtService.generateToken(..))"
+            + " || execution(public * com.example.bankcards.security.JwtService.parseClaims(..))"
+            + " || execution(public * com.example.bankcards.security.PasswordVerifier.verifyAndUpgrade(..))"
+            + " || execution(public * com.example.bankcards.security.PasswordVerifier.encode(..))")
+    public Object timeCrypto(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(CRYPTO_TIMER, joinPoint);
+    }
+
+    private Object record(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long startedAt = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            timer(name, method, outcome(e), e.getClass().getSimpleName())
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        successTimers.computeIfAbsent(method, key -> timer(name, key, SUCCESS, NO_EXCEPTION))
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private Timer timer(String name, Method method, String outcome, String exception) {
+        return Timer.builder(name)
+                .tag("operation", method.getDeclaringClass().getSimpleName() + "." + method.getName())
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+
+    private static String outcome(Throwable e) {
+        if (e instanceof BusinessException || e instanceof AuthenticationException) {
+            return CLIENT_ERROR;
+        }
+        return SERVER_ERROR;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.bankcards.migration;
+
+import com.example.bankcards.util.CryptoUtil;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+@Getter
+@Setter
+public class CardLast4Backfill implements CustomTaskChange {
+    public static final String ENCRYPTION_KEY_PROPERTY = "springdoc.card-encryption-key";
+    public static final String ENCRYPTION_KEY_ENV = "CARD_ENCRYPTION_KEY";
+
+    private Integer batchSize = 500;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int updatedRows;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        JdbcConnection connection = (JdbcConnection) database.getConnection();
+        try (PreparedStatement select = connection.prepareStatement("select id, number from cards where last4 is null");
+             PreparedStatement update = connection.prepareStatement("update cards set last4 = ? where id = ?")) {
+            select.setFetchSize(batchSize);
+            try (ResultSet rows = select.executeQuery()) {
+                CryptoUtil crypto = null;
+                int pending = 0;
+                while (rows.next()) {
+                    if (crypto == null) {
+                        crypto = new CryptoUtil(resolveEncryptionKey().getBytes(StandardCharsets.UTF_8));
+                    }
+                    String number = crypto.decrypt(rows.getString("number"));
+                    update.setString(1, number.substring(number.length() - 4));
+                    update.setObject(2, rows.getObject("id"));
+                    update.addBatch();
+                    if (++pending == batchSize) {
+                        update.executeBatch();
+                        updatedRows += pending;
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    update.executeBatch();
+                    updatedRows += pending;
+                }
+            }
+        } catch (CustomChangeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CustomChangeException("Failed to backfill cards.last4", e);
+        }
+    }
+
+    private static String resolveEncryptionKey() throws CustomChangeException {
+        String key = System.getProperty(ENCRYPTION_KEY_PROPERTY);
+        if (key == null || key.isEmpty()) {
+            key = System.getenv(ENCRYPTION_KEY_ENV);
+        }
+        if (key == null || key.isEmpty()) {
+            throw new CustomChangeException("Card encryption key is required: set " + ENCRYPTION_KEY_ENV
+                    + " or -D" + ENCRYPTION_KEY_PROPERTY);
+        }
+        return key;
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Backfilled last4 for " + updatedRows + " cards";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        ValidationErrors errors = new ValidationErrors();
+        if (batchSize <= 0) {
+            errors.addError("batchSize must be positive");
+        }
+        return errors;
+    }
+}
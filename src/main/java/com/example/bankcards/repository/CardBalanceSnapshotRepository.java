@@ -0,0 +1,18 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CardBalanceSnapshotRepository extends JpaRepository<CardBalanceSnapshot, UUID> {
+    Optional<CardBalanceSnapshot> findFirstByCardIdAndTakenAtLessThanEqualOrderByTakenAtDesc(UUID cardId, Instant at);
+
+    @Query("select max(s.takenAt) from CardBalanceSnapshot s")
+    Optional<Instant> findLatestTakenAt();
+}
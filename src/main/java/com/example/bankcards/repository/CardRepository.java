@@ -2,28 +2,112 @@ package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface CardRepository extends JpaRepository<Card, UUID> {
     List<Card> findByUserId(UUID userId);
-    boolean existsCardByNumber(String number);
+    @Query("select count(c) > 0 from Card c where c.encryptedNumber = :number")
+    boolean existsCardByNumber(@Param("number") String number);
 
-    boolean existsCardById(UUID id);
+    Optional<OwnerView> findFirstByUser_Id(UUID userId);
 
-    Card findFirstByUser_Id(UUID userId);
+    @Query("select c.user.id from Card c where c.id = :id")
+    Optional<UUID> findUserIdById(@Param("id") UUID id);
 
-    boolean existsByUser_Id(UUID id);
+    @Modifying
+    @Query("delete from Card c where c.id = :id")
+    int deleteCardById(@Param("id") UUID id);
 
-    Card findCardByIdAndUser_Id(UUID id, UUID userId);
+    Optional<Card> findCardByIdAndUser_Id(UUID id, UUID userId);
 
-    Page<Card> findByUserIdAndStatus(UUID userId, CardStatus status, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Card c where c.id in :ids and c.user.id = :userId order by c.id")
+    List<Card> findAllForUpdate(@Param("ids") Collection<UUID> ids, @Param("userId") UUID userId);
 
-    boolean existsCardByNumberHash(String numberHash);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Card> findLockedById(UUID id);
+
+    List<Card> findAllByOrderByIdAsc(Limit limit);
+
+    List<Card> findByIdGreaterThanOrderByIdAsc(UUID after, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from Card c order by c.id")
+    Stream<Card> streamAllOrderById();
+
+    Slice<Card> findByUserIdAndStatus(UUID userId, CardStatus status, Pageable pageable);
+
+    Slice<Card> findByUserId(UUID userId, Pageable pageable);
+
+    boolean existsCardByNumberHashIn(Collection<String> numberHashes);
+
+    @Query("select c.id as id, c.encryptedNumber as encryptedNumber, c.numberHash as numberHash from Card c "
+            + "where c.numberHash not like :pattern and c.id > :after order by c.id")
+    List<NumberHashView> findNumberHashesNotLike(@Param("pattern") String numberHashPattern, @Param("after") UUID after,
+                                                 Limit limit);
+
+    long countByNumberHashNotLike(String numberHashPattern);
+
+    @Modifying
+    @Query("update Card c set c.numberHash = :numberHash where c.id = :id and c.numberHash = :previousHash")
+    int updateNumberHash(@Param("id") UUID id, @Param("previousHash") String previousHash,
+                         @Param("numberHash") String numberHash);
+
+    @Query("select c.numberHash from Card c where c.numberHash in :hashes")
+    Set<String> findExistingNumberHashes(@Param("hashes") Collection<String> hashes);
+
+    @Query("select distinct c.user.id as userId, c.owner as owner from Card c where c.user.id in :userIds")
+    List<UserOwnerView> findOwnersByUserIds(@Param("userIds") Collection<UUID> userIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cards"))
+    @Query(value = """
+            update cards set status = 'EXPIRED'
+            where id in (select id from cards
+                         where status <> 'EXPIRED'
+                           and (expiry_year < :year or (expiry_year = :year and expiry_month < :month))
+                         limit :limit)
+            """, nativeQuery = true)
+    int expireDueCards(@Param("year") int year, @Param("month") int month, @Param("limit") int limit);
+
+    interface OwnerView {
+        String getOwner();
+    }
+
+    interface NumberHashView {
+        UUID getId();
+
+        String getEncryptedNumber();
+
+        String getNumberHash();
+    }
+
+    interface UserOwnerView {
+        UUID getUserId();
+
+        String getOwner();
+    }
 }
@@ -0,0 +1,28 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID> {
+    List<LedgerEntry> findByCardIdAndCreatedAtGreaterThanAndCreatedAtLessThanEqualOrderByCreatedAt(
+            UUID cardId, Instant from, Instant to);
+
+    @Query("select coalesce(sum(e.amount), 0) from LedgerEntry e " +
+            "where e.cardId = :cardId and e.createdAt > :from and e.createdAt <= :to")
+    BigDecimal sumAmountBetween(@Param("cardId") UUID cardId, @Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("select coalesce(sum(e.amount), 0) from LedgerEntry e where e.cardId = :cardId and e.createdAt > :from")
+    BigDecimal sumAmountAfter(@Param("cardId") UUID cardId, @Param("from") Instant from);
+
+    @Query("select distinct e.cardId from LedgerEntry e where e.createdAt > :since")
+    List<UUID> findCardIdsWithEntriesAfter(@Param("since") Instant since);
+}
@@ -1,12 +1,43 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Ticket;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public interface TicketRepository extends JpaRepository<Ticket, UUID> {
     boolean existsByCard_Id(UUID cardId);
 
-    void deleteByCard_Id(UUID cardId);
+    @Query("select t.card.id from Ticket t where t.card.id in :cardIds")
+    Set<UUID> findCardIdsWithTickets(@Param("cardIds") Collection<UUID> cardIds);
+
+    @Modifying
+    @Query("delete from Ticket t where t.card.id = :cardId")
+    void deleteByCard_Id(@Param("cardId") UUID cardId);
+
+    @Query("""
+            select t.id as id, t.user.id as userId, t.card.id as cardId from Ticket t
+            where (:after is null or t.id > :after)
+              and (:userId is null or t.user.id = :userId)
+              and (:cardId is null or t.card.id = :cardId)
+            order by t.id""")
+    List<TicketView> findPage(@Param("after") UUID after,
+                              @Param("userId") UUID userId,
+                              @Param("cardId") UUID cardId,
+                              Limit limit);
+
+    interface TicketView {
+        UUID getId();
+
+        UUID getUserId();
+
+        UUID getCardId();
+    }
 }
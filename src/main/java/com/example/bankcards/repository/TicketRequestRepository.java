@@ -0,0 +1,29 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.TicketRequest;
+import com.example.bankcards.entity.TicketRequestStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TicketRequestRepository extends JpaRepository<TicketRequest, UUID> {
+    List<TicketRequest> findByIdInAndStatus(Collection<UUID> ids, TicketRequestStatus status);
+
+    @Query("select r.id from TicketRequest r where r.status = :status and r.createdAt < :before order by r.createdAt")
+    List<UUID> findIdsByStatusCreatedBefore(@Param("status") TicketRequestStatus status,
+                                            @Param("before") Instant before,
+                                            Limit limit);
+
+    Optional<TicketRequest> findByIdAndUserId(UUID id, UUID userId);
+
+    Optional<TicketRequest> findByIdAndStatus(UUID id, TicketRequestStatus status);
+}
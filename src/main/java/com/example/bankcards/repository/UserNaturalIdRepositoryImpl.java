@@ -0,0 +1,27 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager != null) {
+            return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+        }
+        try (Session session = entityManagerFactory.unwrap(SessionFactory.class).openSession()) {
+            return session.bySimpleNaturalId(User.class).loadOptional(username);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.CardExpiryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CardExpiryScheduler {
+    private final CardExpiryService cardExpiryService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpAfterStart() {
+        cardExpiryService.expireDueCards();
+    }
+
+    @Scheduled(cron = "${app.card.expiry-sweep.cron}")
+    public void expireAtMonthBoundary() {
+        cardExpiryService.expireDueCards();
+    }
+}
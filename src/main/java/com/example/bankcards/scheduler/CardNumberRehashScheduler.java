@@ -0,0 +1,35 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.CardNumberRehashService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CardNumberRehashScheduler {
+    private final CardNumberRehashService cardNumberRehashService;
+    private volatile boolean completed;
+
+    @Scheduled(initialDelayString = "${app.card.number-hash.rehash-initial-delay}",
+            fixedDelayString = "${app.card.number-hash.rehash-delay}")
+    public void rehashLegacyNumbers() {
+        if (completed) {
+            return;
+        }
+        CardNumberRehashService.RehashResult result = cardNumberRehashService.rehashAll();
+        if (result.remaining() == 0) {
+            completed = true;
+            log.info("Card number rehash complete: {} cards rehashed in the last run, no legacy hashes left. "
+                    + "app.card.number-hash.legacy-lookup can be switched off", result.rehashed());
+        } else if (result.failed() > 0) {
+            log.warn("Card number rehash: {} cards rehashed, {} failed, {} legacy hashes left",
+                    result.rehashed(), result.failed(), result.remaining());
+        } else {
+            log.info("Card number rehash: {} cards rehashed, {} legacy hashes left",
+                    result.rehashed(), result.remaining());
+        }
+    }
+}
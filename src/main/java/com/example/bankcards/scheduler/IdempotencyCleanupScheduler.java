@@ -0,0 +1,17 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class IdempotencyCleanupScheduler {
+    private final IdempotencyService idempotencyService;
+
+    @Scheduled(cron = "${app.idempotency.cleanup-cron}")
+    public void removeExpiredKeys() {
+        idempotencyService.removeExpired();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.LedgerService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+@Component
+public class LedgerSnapshotScheduler {
+    private final LedgerService ledgerService;
+    private final Duration overlap;
+    private Instant lastRunStartedAt;
+
+    public LedgerSnapshotScheduler(LedgerService ledgerService,
+                                   @Value("${app.ledger.snapshot-overlap}") Duration overlap) {
+        this.ledgerService = ledgerService;
+        this.overlap = overlap;
+    }
+
+    @Scheduled(cron = "${app.ledger.snapshot-cron}")
+    public void takeSnapshots() {
+        Instant startedAt = Instant.now();
+        Instant since = lastRunStartedAt != null
+                ? lastRunStartedAt
+                : ledgerService.findLatestSnapshotTime().orElse(Instant.EPOCH);
+        for (UUID cardId : ledgerService.findCardsChangedAfter(since.minus(overlap))) {
+            ledgerService.takeSnapshot(cardId);
+        }
+        lastRunStartedAt = startedAt;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.TicketIntakeQueue;
+import com.example.bankcards.service.TicketService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Component
+public class TicketIntakeWorker implements SmartLifecycle {
+    private final TicketIntakeQueue ticketIntakeQueue;
+    private final TicketService ticketService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration pollTimeout;
+    private final Duration staleAfter;
+    private final int maxAttempts;
+    private final String failedMessage;
+    private volatile boolean running;
+    private Thread thread;
+
+    public TicketIntakeWorker(TicketIntakeQueue ticketIntakeQueue,
+                              TicketService ticketService,
+                              @Value("${app.ticket.intake.worker-enabled}") boolean enabled,
+                              @Value("${app.ticket.intake.batch-size}") int batchSize,
+                              @Value("${app.ticket.intake.poll-timeout}") Duration pollTimeout,
+                              @Value("${app.ticket.intake.stale-after}") Duration staleAfter,
+                              @Value("${app.ticket.intake.max-attempts}") int maxAttempts,
+                              @Value("${app.ticket.intake.exception-message.failed}") String failedMessage) {
+        this.ticketIntakeQueue = ticketIntakeQueue;
+        this.ticketService = ticketService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollTimeout = pollTimeout;
+        this.staleAfter = staleAfter;
+        this.maxAttempts = maxAttempts;
+        this.failedMessage = failedMessage;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform().name("ticket-intake").daemon().start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(pollTimeout.multipliedBy(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Scheduled(fixedDelayString = "${app.ticket.intake.recovery-delay}")
+    public void requeueStaleRequests() {
+        if (!running) {
+            return;
+        }
+        for (UUID requestId : ticketService.findStaleRequestIds(staleAfter, batchSize)) {
+            if (!ticketIntakeQueue.offer(requestId)) {
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        while (running) {
+            try {
+                List<UUID> batch = ticketIntakeQueue.poll(batchSize, pollTimeout);
+                if (!batch.isEmpty()) {
+                    try {
+                        process(batch);
+                    } finally {
+                        ticketIntakeQueue.release(batch);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Ticket intake batch failed, requests stay pending until recovery", e);
+            }
+        }
+    }
+
+    private void process(List<UUID> batch) {
+        try {
+            ticketService.processBatch(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                recordFailure(batch.get(0), e);
+                return;
+            }
+            log.warn("Ticket intake batch of {} requests failed, retrying them one by one", batch.size(), e);
+            for (UUID requestId : batch) {
+                try {
+                    ticketService.processBatch(List.of(requestId));
+                } catch (RuntimeException requestFailure) {
+                    recordFailure(requestId, requestFailure);
+                }
+            }
+        }
+    }
+
+    private void recordFailure(UUID requestId, RuntimeException e) {
+        if (ticketService.recordFailedAttempt(requestId, maxAttempts, failedMessage)) {
+            log.error("Ticket request {} failed {} times and was marked FAILED", requestId, maxAttempts, e);
+        } else {
+            log.warn("Ticket request {} failed, it stays pending until recovery", requestId, e);
+        }
+    }
+}
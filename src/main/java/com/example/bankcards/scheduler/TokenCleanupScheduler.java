@@ -0,0 +1,32 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.security.RefreshTokenService;
+import com.example.bankcards.security.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class TokenCleanupScheduler {
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevokedTokens() {
+        tokenRevocationService.rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.sync-delay}")
+    public void syncRevokedTokens() {
+        tokenRevocationService.sync();
+    }
+
+    @Scheduled(cron = "${app.security.revocation.cleanup-cron}")
+    public void removeExpiredTokens() {
+        refreshTokenService.removeExpired();
+        tokenRevocationService.removeExpired();
+    }
+}
@@ -1,52 +1,74 @@
 package com.example.bankcards.security;
 
 import com.example.bankcards.dto.JwtAuthenticationResponse;
+import com.example.bankcards.dto.RefreshTokenRequest;
 import com.example.bankcards.dto.SignInRequest;
 import com.example.bankcards.dto.SignUpRequest;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class AuthenticationService {
     private final UserService userService;
     private final JwtService jwtService;
-    private final PasswordEncoder passwordEncoder;
-    private final AuthenticationManager authenticationManager;
+    private final PasswordVerifier passwordVerifier;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
 
     public JwtAuthenticationResponse signUp(SignUpRequest request) {
 
         User user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordVerifier.encode(request.getPassword()))
                 .role(Role.ROLE_USER)
                 .build();
 
-        userService.create(user);
-
-        String jwt = jwtService.generateToken(user);
-        return new JwtAuthenticationResponse(jwt);
+        return issueTokens(userService.create(user));
     }
 
     public JwtAuthenticationResponse signIn(SignInRequest request) {
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
-                request.getUsername(),
-                request.getPassword()
-        ));
+        User user = userService.findByUsername(request.getUsername()).orElse(null);
+        passwordVerifier.verifyAndUpgrade(user, request.getPassword())
+                .ifPresent(upgradedHash -> userService.updatePassword(user, upgradedHash));
 
-        UserDetails user = userService
-                .userDetailsService()
-                .loadUserByUsername(request.getUsername());
+        return issueTokens(user);
+    }
 
-        String jwt = jwtService.generateToken(user);
-        return new JwtAuthenticationResponse(jwt);
+    public JwtAuthenticationResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        return JwtAuthenticationResponse.builder()
+                .token(jwtService.generateToken(rotation.user()))
+                .refreshToken(rotation.refreshToken())
+                .build();
+    }
+
+    public void logout(RefreshTokenRequest request, String accessToken) {
+        refreshTokenService.revoke(request.getRefreshToken());
+        if (accessToken == null) {
+            return;
+        }
+        try {
+            Claims claims = jwtService.parseClaims(accessToken);
+            if (claims.getId() != null) {
+                tokenRevocationService.revoke(UUID.fromString(claims.getId()), claims.getExpiration().toInstant());
+            }
+        } catch (JwtException | IllegalArgumentException ignored) {
+        }
+    }
+
+    private JwtAuthenticationResponse issueTokens(User user) {
+        return JwtAuthenticationResponse.builder()
+                .token(jwtService.generateToken(user))
+                .refreshToken(refreshTokenService.issue(user))
+                .build();
     }
 }
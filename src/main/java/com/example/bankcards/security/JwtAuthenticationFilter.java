@@ -1,12 +1,14 @@
 package com.example.bankcards.security;
 
 import com.example.bankcards.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContext;
@@ -17,14 +19,30 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.UUID;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     public static final String BEARER_PREFIX = "Bearer ";
     public static final String HEADER_NAME = "Authorization";
+    private static final String TOKEN_PRINCIPAL_SOURCE = "token";
     private final JwtService jwtService;
     private final UserService userService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final boolean principalFromToken;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserService userService,
+                                   PrincipalCache principalCache,
+                                   TokenRevocationService tokenRevocationService,
+                                   @Value("${app.security.principal-source}") String principalSource) {
+        this.jwtService = jwtService;
+        this.userService = userService;
+        this.principalCache = principalCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.principalFromToken = TOKEN_PRINCIPAL_SOURCE.equalsIgnoreCase(principalSource);
+    }
 
     @Override
     protected void doFilterInternal(
@@ -40,16 +58,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String jwt = authHeader.substring(BEARER_PREFIX.length());
-        String username = jwtService.extractUserName(jwt);
+        Claims claims;
+        try {
+            claims = jwtService.parseClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (isRevoked(claims)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String username = claims.getSubject();
 
         if (StringUtils.isNotEmpty(username)
                 && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails userDetails = userService
-                    .userDetailsService()
-                    .loadUserByUsername(username);
+            UserDetails userDetails = loadPrincipal(claims, username);
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (jwtService.isTokenValid(claims, userDetails)) {
 
                 SecurityContext context = SecurityContextHolder.createEmptyContext();
 
@@ -71,4 +98,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private boolean isRevoked(Claims claims) {
+        if (claims.getId() == null) {
+            return true;
+        }
+        try {
+            return tokenRevocationService.isRevoked(UUID.fromString(claims.getId()));
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    private UserDetails loadPrincipal(Claims claims, String username) {
+        if (principalFromToken) {
+            UserDetails principal = jwtService.extractPrincipal(claims);
+            if (principal != null) {
+                return principal;
+            }
+        }
+        return principalCache.get(username, userService.userDetailsService()::loadUserByUsername);
+    }
 }
@@ -0,0 +1,47 @@
+package com.example.bankcards.security;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+public class MetricsScrapeAuthenticationProvider implements AuthenticationProvider {
+    private final byte[] usernameDigest;
+    private final byte[] passwordDigest;
+    private final List<SimpleGrantedAuthority> authorities;
+
+    public MetricsScrapeAuthenticationProvider(String username, String password, String role) {
+        this.usernameDigest = digest(username);
+        this.passwordDigest = digest(password);
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        boolean usernameMatches = MessageDigest.isEqual(usernameDigest, digest(authentication.getName()));
+        boolean passwordMatches = MessageDigest.isEqual(passwordDigest, digest(String.valueOf(authentication.getCredentials())));
+        if (!usernameMatches || !passwordMatches) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(authentication.getName(), null, authorities);
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    private static byte[] digest(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
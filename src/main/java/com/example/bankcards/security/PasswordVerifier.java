@@ -0,0 +1,123 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.ServerException;
+import com.example.bankcards.exception.TooManySignInAttemptsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+public class PasswordVerifier implements DisposableBean {
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final String USER_NOT_FOUND_PASSWORD = "userNotFoundPassword";
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final AccountStatusUserDetailsChecker accountStatusChecker = new AccountStatusUserDetailsChecker();
+    private final int strength;
+    private final Duration retryAfter;
+    private final String badCredentialsMessage;
+    private final String tooManySignInsMessage;
+    private final Counter rejections;
+    private volatile String userNotFoundHash;
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.security.password.bcrypt-strength}") int strength,
+                            @Value("${app.security.password.verifier.threads}") int threads,
+                            @Value("${app.security.password.verifier.queue-capacity}") int queueCapacity,
+                            @Value("${app.security.password.verifier.retry-after}") Duration retryAfter,
+                            @Value("${app.security.password.exception-message.bad-credentials}") String badCredentialsMessage,
+                            @Value("${app.security.password.exception-message.too-many-sign-ins}") String tooManySignInsMessage) {
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+        this.retryAfter = retryAfter;
+        this.badCredentialsMessage = badCredentialsMessage;
+        this.tooManySignInsMessage = tooManySignInsMessage;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-verifier-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("bank.auth.password.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("bank.auth.password.rejected")
+                .description("Sign-ins rejected because the password worker queue was full")
+                .register(meterRegistry);
+    }
+
+    public Optional<String> verifyAndUpgrade(User user, String rawPassword) {
+        String upgradedHash = submit(() -> {
+            String encodedPassword = user == null ? userNotFoundHash() : user.getPassword();
+            if (!passwordEncoder.matches(rawPassword, encodedPassword) || user == null) {
+                throw new BadCredentialsException(badCredentialsMessage);
+            }
+            return needsRehash(encodedPassword) ? passwordEncoder.encode(rawPassword) : null;
+        });
+        accountStatusChecker.check(user);
+        return Optional.ofNullable(upgradedHash);
+    }
+
+    public String encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean needsRehash(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return !matcher.find() || Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> result;
+        try {
+            result = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new TooManySignInAttemptsException(tooManySignInsMessage, retryAfter);
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServerException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ServerException();
+        }
+    }
+
+    private String userNotFoundHash() {
+        String hash = userNotFoundHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode(USER_NOT_FOUND_PASSWORD);
+            userNotFoundHash = hash;
+        }
+        return hash;
+    }
+}
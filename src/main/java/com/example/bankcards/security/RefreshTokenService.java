@@ -0,0 +1,102 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.RefreshToken;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.RefreshTokenException;
+import com.example.bankcards.exception.ServerException;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+@Service
+public class RefreshTokenService {
+    private static final int TOKEN_BYTES = 32;
+    private final RefreshTokenRepository repository;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Duration ttl;
+    private final String invalidMessage;
+    private final String reusedMessage;
+
+    public RefreshTokenService(RefreshTokenRepository repository,
+                               @Value("${token.refresh-ttl}") Duration ttl,
+                               @Value("${app.security.refresh-token.exception-message.invalid}") String invalidMessage,
+                               @Value("${app.security.refresh-token.exception-message.reused}") String reusedMessage) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.invalidMessage = invalidMessage;
+        this.reusedMessage = reusedMessage;
+    }
+
+    @Transactional
+    public String issue(User user) {
+        String rawToken = generate();
+        repository.save(newToken(user, rawToken, Instant.now()));
+        return rawToken;
+    }
+
+    @Transactional(noRollbackFor = RefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        Instant now = Instant.now();
+        RefreshToken current = repository.findWithUserByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new RefreshTokenException(invalidMessage));
+        if (current.getRevokedAt() != null || repository.revokeIfActive(current.getId(), now) == 0) {
+            repository.revokeAllByUserId(current.getUser().getId(), now);
+            throw new RefreshTokenException(reusedMessage);
+        }
+        if (!current.getExpiresAt().isAfter(now)) {
+            throw new RefreshTokenException(invalidMessage);
+        }
+        String nextToken = generate();
+        repository.save(newToken(current.getUser(), nextToken, now));
+        return new Rotation(current.getUser(), nextToken);
+    }
+
+    @Transactional
+    public boolean revoke(String rawToken) {
+        return repository.revokeByTokenHash(hash(rawToken), Instant.now()) > 0;
+    }
+
+    @Transactional
+    public int removeExpired() {
+        return repository.deleteExpiredBefore(Instant.now());
+    }
+
+    private RefreshToken newToken(User user, String rawToken, Instant now) {
+        return RefreshToken.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .tokenHash(hash(rawToken))
+                .createdAt(now)
+                .expiresAt(now.plus(ttl))
+                .build();
+    }
+
+    private String generate() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new ServerException();
+        }
+    }
+
+    public record Rotation(User user, String refreshToken) {
+    }
+}
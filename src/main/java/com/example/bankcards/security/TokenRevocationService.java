@@ -0,0 +1,121 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.RevokedToken;
+import com.example.bankcards.repository.RevokedTokenRepository;
+import com.example.bankcards.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class TokenRevocationService {
+    private final RevokedTokenRepository repository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Duration syncOverlap;
+    private final Counter databaseChecks;
+    private final Set<UUID> revokedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile BloomFilter revoked;
+    private volatile Instant lastSyncStartedAt;
+    private volatile boolean rebuilding;
+
+    public TokenRevocationService(RevokedTokenRepository repository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.security.revocation.expected-insertions}") long expectedInsertions,
+                                  @Value("${app.security.revocation.false-positive-rate}") double falsePositiveRate,
+                                  @Value("${app.security.revocation.sync-overlap}") Duration syncOverlap) {
+        this.repository = repository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncOverlap = syncOverlap;
+        this.databaseChecks = Counter.builder("bank.auth.revocation.db-checks")
+                .description("Access token revocation checks that fell through the bloom filter to the database")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(UUID tokenId) {
+        BloomFilter current = revoked;
+        if (current != null && !current.mightContain(tokenId)) {
+            return false;
+        }
+        databaseChecks.increment();
+        return repository.existsById(tokenId);
+    }
+
+    public void revoke(UUID tokenId, Instant expiresAt) {
+        try {
+            repository.saveAndFlush(RevokedToken.builder()
+                    .id(tokenId)
+                    .revokedAt(Instant.now())
+                    .expiresAt(expiresAt)
+                    .build());
+        } catch (DataIntegrityViolationException ignored) {
+        }
+        if (rebuilding) {
+            revokedDuringRebuild.add(tokenId);
+        }
+        BloomFilter current = revoked;
+        if (current != null) {
+            current.put(tokenId);
+        }
+    }
+
+    public synchronized void sync() {
+        BloomFilter current = revoked;
+        if (current == null) {
+            return;
+        }
+        Instant startedAt = Instant.now();
+        repository.findActiveIdsRevokedSince(lastSyncStartedAt.minus(syncOverlap), startedAt).forEach(current::put);
+        lastSyncStartedAt = startedAt;
+    }
+
+    @Transactional
+    public int removeExpired() {
+        int removed = repository.deleteExpiredBefore(Instant.now());
+        afterCommit(this::rebuild);
+        return removed;
+    }
+
+    public synchronized void rebuild() {
+        rebuilding = true;
+        try {
+            Instant startedAt = Instant.now();
+            BloomFilter rebuilt = new BloomFilter(expectedInsertions, falsePositiveRate);
+            repository.findActiveIdsRevokedSince(Instant.EPOCH, startedAt).forEach(rebuilt::put);
+            revoked = rebuilt;
+            lastSyncStartedAt = startedAt;
+        } finally {
+            rebuilding = false;
+        }
+        BloomFilter current = revoked;
+        if (current != null) {
+            revokedDuringRebuild.forEach(current::put);
+        }
+        revokedDuringRebuild.clear();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
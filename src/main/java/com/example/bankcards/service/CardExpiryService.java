@@ -0,0 +1,67 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.CardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+@Service
+public class CardExpiryService {
+    private final CardRepository cardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UserCardCache userCardCache;
+    private final Clock clock;
+    private final int chunkSize;
+    private final Counter expiredCards;
+    private final Counter sweepChunks;
+    private final Timer sweepTimer;
+
+    public CardExpiryService(CardRepository cardRepository,
+                             TransactionTemplate transactionTemplate,
+                             UserCardCache userCardCache,
+                             Clock clock,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.card.expiry-sweep.chunk-size}") int chunkSize) {
+        this.cardRepository = cardRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.userCardCache = userCardCache;
+        this.clock = clock;
+        this.chunkSize = chunkSize;
+        this.expiredCards = Counter.builder("bank.cards.expired")
+                .description("Cards moved to EXPIRED by the expiry sweep")
+                .register(meterRegistry);
+        this.sweepChunks = Counter.builder("bank.cards.expiry.chunks")
+                .description("Update chunks executed by the expiry sweep")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("bank.cards.expiry.sweep")
+                .description("Duration of a full expiry sweep")
+                .register(meterRegistry);
+    }
+
+    public int expireDueCards() {
+        LocalDate today = LocalDate.now(clock);
+        return sweepTimer.record(() -> {
+            int total = 0;
+            int updated;
+            do {
+                updated = transactionTemplate.execute(status -> {
+                    int expired = cardRepository.expireDueCards(today.getYear(), today.getMonthValue(), chunkSize);
+                    if (expired > 0) {
+                        userCardCache.invalidateAll();
+                    }
+                    return expired;
+                });
+                sweepChunks.increment();
+                expiredCards.increment(updated);
+                total += updated;
+            } while (updated == chunkSize);
+            return total;
+        });
+    }
+}
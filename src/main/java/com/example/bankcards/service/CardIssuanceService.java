@@ -0,0 +1,302 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardIssuanceErrorDto;
+import com.example.bankcards.dto.CardIssuanceResultDto;
+import com.example.bankcards.dto.CreateCardRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.exception.BusinessException;
+import com.example.bankcards.exception.CardException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class CardIssuanceService {
+    private static final String CSV_SEPARATOR = ",";
+    private static final int CSV_COLUMNS = 7;
+    private final CardRepository cardRepository;
+    private final UserRepository userRepository;
+    private final CardService cardService;
+    private final CardValidatorService cardValidatorService;
+    private final UserValidatorService userValidatorService;
+    private final HashService hashService;
+    private final LedgerService ledgerService;
+    private final UserCardCache userCardCache;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectReader requestReader;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final String malformedLineMessage;
+    private final String malformedBodyMessage;
+    private final String chunkFailedMessage;
+
+    public CardIssuanceService(CardRepository cardRepository,
+                               UserRepository userRepository,
+                               CardService cardService,
+                               CardValidatorService cardValidatorService,
+                               UserValidatorService userValidatorService,
+                               HashService hashService,
+                               LedgerService ledgerService,
+                               UserCardCache userCardCache,
+                               EntityManager entityManager,
+                               TransactionTemplate transactionTemplate,
+                               Validator validator,
+                               ObjectMapper objectMapper,
+                               @Value("${app.card.issuance.chunk-size}") int chunkSize,
+                               @Value("${app.card.issuance.max-reported-errors}") int maxReportedErrors,
+                               @Value("${app.card.exception-message.malformed-issuance-line}") String malformedLineMessage,
+                               @Value("${app.card.exception-message.malformed-issuance-body}") String malformedBodyMessage,
+                               @Value("${app.card.exception-message.issuance-chunk-failed}") String chunkFailedMessage) {
+        this.cardRepository = cardRepository;
+        this.userRepository = userRepository;
+        this.cardService = cardService;
+        this.cardValidatorService = cardValidatorService;
+        this.userValidatorService = userValidatorService;
+        this.hashService = hashService;
+        this.ledgerService = ledgerService;
+        this.userCardCache = userCardCache;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(CreateCardRequest.class);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.malformedLineMessage = malformedLineMessage;
+        this.malformedBodyMessage = malformedBodyMessage;
+        this.chunkFailedMessage = chunkFailedMessage;
+    }
+
+    public CardIssuanceResultDto issueFromJson(InputStream body) throws IOException {
+        try (MappingIterator<CreateCardRequest> requests = requestReader.readValues(body)) {
+            return issue(new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return nextJson(requests::hasNextValue);
+                }
+
+                @Override
+                public IssuanceLine next() {
+                    return new IssuanceLine(nextJson(requests::nextValue), null);
+                }
+            });
+        }
+    }
+
+    public CardIssuanceResultDto issueFromCsv(InputStream body) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            reader.readLine();
+            return issue(reader.lines()
+                    .filter(line -> !line.isBlank())
+                    .map(this::parseCsvLine)
+                    .iterator());
+        }
+    }
+
+    private CardIssuanceResultDto issue(Iterator<IssuanceLine> lines) {
+        long startedAt = System.nanoTime();
+        IssuanceRun run = new IssuanceRun();
+        List<IssuanceLine> chunk = new ArrayList<>(chunkSize);
+        String error = null;
+        try {
+            while (lines.hasNext()) {
+                chunk.add(lines.next());
+                if (chunk.size() == chunkSize) {
+                    issueChunk(chunk, run);
+                    chunk.clear();
+                }
+            }
+        } catch (BusinessException e) {
+            if (run.chunks == 0) {
+                throw e;
+            }
+            error = e.getMessage();
+        }
+        if (!chunk.isEmpty()) {
+            issueChunk(chunk, run);
+        }
+        run.errors.sort(Comparator.comparingInt(CardIssuanceErrorDto::getIndex));
+        long durationNanos = System.nanoTime() - startedAt;
+        return CardIssuanceResultDto.builder()
+                .received(run.received)
+                .created(run.created)
+                .rejected(run.received - run.created)
+                .durationMillis(durationNanos / 1_000_000)
+                .cardsPerSecond(durationNanos == 0 ? 0 : run.created * 1_000_000_000d / durationNanos)
+                .completed(error == null)
+                .error(error)
+                .errors(run.errors)
+                .build();
+    }
+
+    private void issueChunk(List<IssuanceLine> chunk, IssuanceRun run) {
+        int firstIndex = run.received;
+        List<Integer> accepted = new ArrayList<>(chunk.size());
+        Set<UUID> newOwners = new HashSet<>();
+        run.chunks++;
+        try {
+            saveChunk(chunk, firstIndex, accepted, newOwners, run);
+            run.created += accepted.size();
+        } catch (RuntimeException e) {
+            log.warn("Card issuance chunk of {} lines starting at {} failed", chunk.size(), firstIndex, e);
+            newOwners.forEach(run.owners::remove);
+            accepted.forEach(index -> run.reject(index, chunkFailedMessage));
+        }
+        run.received = firstIndex + chunk.size();
+    }
+
+    private void saveChunk(List<IssuanceLine> chunk, int firstIndex, List<Integer> accepted, Set<UUID> newOwners,
+                           IssuanceRun run) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<CreateCardRequest, List<String>> hashes = chunk.stream()
+                    .map(IssuanceLine::request)
+                    .filter(request -> request != null && request.getNumber() != null)
+                    .collect(Collectors.toMap(Function.identity(), request -> hashService.lookupHashes(request.getNumber()),
+                            (first, second) -> first));
+            Set<String> takenHashes = new HashSet<>(cardRepository.findExistingNumberHashes(
+                    hashes.values().stream().flatMap(List::stream).toList()));
+            prefetchUsers(chunk, run);
+
+            List<Card> cards = new ArrayList<>(chunk.size());
+            Set<UUID> owners = new HashSet<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                IssuanceLine line = chunk.get(i);
+                int index = firstIndex + i;
+                try {
+                    Card card = toCard(line, hashes, takenHashes, run);
+                    takenHashes.add(card.getNumberHash());
+                    if (run.owners.putIfAbsent(line.request().getUserId(), card.getOwner()) == null) {
+                        newOwners.add(line.request().getUserId());
+                    }
+                    cards.add(card);
+                    owners.add(line.request().getUserId());
+                    accepted.add(index);
+                } catch (BusinessException e) {
+                    run.reject(index, e.getMessage());
+                }
+            }
+            cardRepository.saveAll(cards);
+            ledgerService.openCards(cards);
+            userCardCache.invalidate(owners);
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private Card toCard(IssuanceLine line, Map<CreateCardRequest, List<String>> hashes, Set<String> takenHashes, IssuanceRun run) {
+        if (line.error() != null) {
+            throw new CardException(line.error());
+        }
+        CreateCardRequest request = line.request();
+        Set<ConstraintViolation<CreateCardRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<CreateCardRequest> violation = violations.iterator().next();
+            throw new CardException(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        userValidatorService.validateUserExistsById(request.getUserId(), run.users);
+        List<String> numberHashes = hashes.get(request);
+        cardValidatorService.ensureCardNotExistsByNumberHash(numberHashes, takenHashes);
+        Card card = cardService.toCardEntity(request, userRepository.getReferenceById(request.getUserId()), numberHashes.get(0));
+        cardValidatorService.validateExpiryDate(card);
+        cardValidatorService.validateCardOwner(card, run.owners.get(request.getUserId()));
+        return card;
+    }
+
+    private void prefetchUsers(List<IssuanceLine> chunk, IssuanceRun run) {
+        Set<UUID> unknownUsers = chunk.stream()
+                .map(IssuanceLine::request)
+                .filter(request -> request != null && request.getUserId() != null)
+                .map(CreateCardRequest::getUserId)
+                .filter(userId -> !run.checkedUsers.contains(userId))
+                .collect(Collectors.toSet());
+        if (unknownUsers.isEmpty()) {
+            return;
+        }
+        run.checkedUsers.addAll(unknownUsers);
+        run.users.addAll(userRepository.findExistingIds(unknownUsers));
+        cardRepository.findOwnersByUserIds(unknownUsers)
+                .forEach(owner -> run.owners.putIfAbsent(owner.getUserId(), owner.getOwner()));
+    }
+
+    private IssuanceLine parseCsvLine(String line) {
+        String[] columns = line.split(CSV_SEPARATOR, -1);
+        if (columns.length != CSV_COLUMNS) {
+            return new IssuanceLine(null, malformedLineMessage);
+        }
+        try {
+            return new IssuanceLine(CreateCardRequest.builder()
+                    .number(columns[0].strip())
+                    .owner(columns[1].strip())
+                    .expiryMonth(Integer.parseInt(columns[2].strip()))
+                    .expiryYear(Integer.parseInt(columns[3].strip()))
+                    .status(CardStatus.valueOf(columns[4].strip()))
+                    .balance(new BigDecimal(columns[5].strip()))
+                    .userId(UUID.fromString(columns[6].strip()))
+                    .build(), null);
+        } catch (IllegalArgumentException e) {
+            return new IssuanceLine(null, malformedLineMessage);
+        }
+    }
+
+    private <T> T nextJson(JsonSupplier<T> supplier) {
+        try {
+            return supplier.get();
+        } catch (IOException e) {
+            throw new CardException(malformedBodyMessage);
+        }
+    }
+
+    @FunctionalInterface
+    private interface JsonSupplier<T> {
+        T get() throws IOException;
+    }
+
+    private record IssuanceLine(CreateCardRequest request, String error) {
+    }
+
+    private class IssuanceRun {
+        private final Set<UUID> checkedUsers = new HashSet<>();
+        private final Set<UUID> users = new HashSet<>();
+        private final Map<UUID, String> owners = new HashMap<>();
+        private final List<CardIssuanceErrorDto> errors = new ArrayList<>();
+        private int received;
+        private int created;
+        private int chunks;
+
+        private void reject(int index, String error) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new CardIssuanceErrorDto(index, error));
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardPageDto;
+import com.example.bankcards.dto.CardSliceDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Service
+public class CardListingService {
+    private static final byte NEW_LINE = '\n';
+    private final CardRepository cardRepository;
+    private final CardService cardService;
+    private final UserService userService;
+    private final EntityManager entityManager;
+    private final UserCardCache userCardCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter cardWriter;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int defaultUserPageSize;
+    private final int maxUserPageSize;
+
+    public CardListingService(CardRepository cardRepository,
+                              CardService cardService,
+                              UserService userService,
+                              EntityManager entityManager,
+                              UserCardCache userCardCache,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${app.card.admin-page.default-size}") int defaultPageSize,
+                              @Value("${app.card.admin-page.max-size}") int maxPageSize,
+                              @Value("${app.card.user-page.default-size}") int defaultUserPageSize,
+                              @Value("${app.card.user-page.max-size}") int maxUserPageSize) {
+        this.cardRepository = cardRepository;
+        this.cardService = cardService;
+        this.userService = userService;
+        this.entityManager = entityManager;
+        this.userCardCache = userCardCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.cardWriter = objectMapper.writerFor(CardDto.class);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.defaultUserPageSize = defaultUserPageSize;
+        this.maxUserPageSize = maxUserPageSize;
+    }
+
+    @Transactional(readOnly = true)
+    public CardPageDto findCardsPage(UUID after, Integer size) {
+        Limit limit = Limit.of(resolvePageSize(size, defaultPageSize, maxPageSize));
+        List<Card> cards = after == null
+                ? cardRepository.findAllByOrderByIdAsc(limit)
+                : cardRepository.findByIdGreaterThanOrderByIdAsc(after, limit);
+        UUID nextCursor = cards.size() < limit.max() ? null : cards.get(cards.size() - 1).getId();
+        return CardPageDto.builder()
+                .cards(cards.stream().map(cardService::toCardDto).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    public CardSliceDto findUserCards(CardStatus status, int page, Integer size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 1) - 1,
+                resolvePageSize(size, defaultUserPageSize, maxUserPageSize), Sort.by("id"));
+        UUID userId = userService.getCurrentUser().getId();
+        return userCardCache.get(userId, status, pageable.getPageNumber(), pageable.getPageSize(),
+                () -> readOnlyTransaction.execute(tx -> loadUserCards(userId, status, pageable)));
+    }
+
+    private CardSliceDto loadUserCards(UUID userId, CardStatus status, Pageable pageable) {
+        Slice<Card> cards = status == null
+                ? cardRepository.findByUserId(userId, pageable)
+                : cardRepository.findByUserIdAndStatus(userId, status, pageable);
+        return CardSliceDto.builder()
+                .cards(cards.getContent().stream().map(cardService::toCardDto).toList())
+                .page(pageable.getPageNumber() + 1)
+                .size(pageable.getPageSize())
+                .hasNext(cards.hasNext())
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllCards(OutputStream out) {
+        try (Stream<Card> cards = cardRepository.streamAllOrderById()) {
+            cards.forEach(card -> {
+                writeLine(out, cardService.toCardDto(card));
+                entityManager.detach(card);
+            });
+        }
+    }
+
+    private void writeLine(OutputStream out, CardDto card) {
+        try {
+            out.write(cardWriter.writeValueAsBytes(card));
+            out.write(NEW_LINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int resolvePageSize(Integer size, int defaultSize, int maxSize) {
+        if (size == null || size <= 0) {
+            return defaultSize;
+        }
+        return Math.min(size, maxSize);
+    }
+}
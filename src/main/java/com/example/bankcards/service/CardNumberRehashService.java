@@ -0,0 +1,99 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.util.CryptoUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class CardNumberRehashService {
+    private static final String CURRENT_HASH_PATTERN = HashService.CURRENT_VERSION_PREFIX + "%";
+    private static final UUID FIRST_ID = new UUID(0, 0);
+    private final CardRepository cardRepository;
+    private final HashService hashService;
+    private final CryptoUtil cryptoUtil;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Counter rehashedCards;
+    private final Counter failedCards;
+    private final AtomicLong legacyCards = new AtomicLong(-1);
+
+    public CardNumberRehashService(CardRepository cardRepository,
+                                   HashService hashService,
+                                   CryptoUtil cryptoUtil,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.card.number-hash.rehash-chunk-size}") int chunkSize) {
+        this.cardRepository = cardRepository;
+        this.hashService = hashService;
+        this.cryptoUtil = cryptoUtil;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.rehashedCards = Counter.builder("bank.cards.number-hash.rehashed")
+                .description("Card number hashes moved to the current version")
+                .register(meterRegistry);
+        this.failedCards = Counter.builder("bank.cards.number-hash.rehash-failures")
+                .description("Cards skipped by the rehash job because their number could not be rehashed")
+                .register(meterRegistry);
+        Gauge.builder("bank.cards.number-hash.legacy", legacyCards, AtomicLong::get)
+                .description("Cards still on a legacy number hash after the last rehash run, -1 before the first run")
+                .register(meterRegistry);
+    }
+
+    public RehashResult rehashAll() {
+        UUID after = FIRST_ID;
+        int rehashed = 0;
+        int failed = 0;
+        Chunk chunk;
+        do {
+            chunk = rehashChunk(after);
+            rehashed += chunk.rehashed();
+            failed += chunk.failed();
+            after = chunk.lastId();
+        } while (chunk.scanned() == chunkSize);
+        long remaining = cardRepository.countByNumberHashNotLike(CURRENT_HASH_PATTERN);
+        legacyCards.set(remaining);
+        return new RehashResult(rehashed, failed, remaining);
+    }
+
+    private Chunk rehashChunk(UUID after) {
+        return transactionTemplate.execute(status -> {
+            List<CardRepository.NumberHashView> cards =
+                    cardRepository.findNumberHashesNotLike(CURRENT_HASH_PATTERN, after, Limit.of(chunkSize));
+            int rehashed = 0;
+            int failed = 0;
+            for (CardRepository.NumberHashView card : cards) {
+                String numberHash;
+                try {
+                    numberHash = hashService.hmacSha256(cryptoUtil.decrypt(card.getEncryptedNumber()));
+                } catch (RuntimeException e) {
+                    log.warn("Skipping card {}: its number could not be rehashed", card.getId(), e);
+                    failed++;
+                    continue;
+                }
+                rehashed += cardRepository.updateNumberHash(card.getId(), card.getNumberHash(), numberHash);
+            }
+            rehashedCards.increment(rehashed);
+            failedCards.increment(failed);
+            UUID lastId = cards.isEmpty() ? after : cards.get(cards.size() - 1).getId();
+            return new Chunk(cards.size(), rehashed, failed, lastId);
+        });
+    }
+
+    public record RehashResult(int rehashed, int failed, long remaining) {
+    }
+
+    private record Chunk(int scanned, int rehashed, int failed, UUID lastId) {
+    }
+}
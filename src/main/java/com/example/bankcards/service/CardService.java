@@ -3,22 +3,29 @@ package com.example.bankcards.service;
 import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.dto.CreateCardRequest;
 import com.example.bankcards.dto.MoneyTransferDto;
+import com.example.bankcards.dto.TransferResultDto;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.BusinessException;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TicketRepository;
 import com.example.bankcards.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -30,59 +37,69 @@ public class CardService {
     private final UserService userService;
     private final HashService hashService;
     private final TicketRepository ticketRepository;
-
-    @Transactional(readOnly = true)
-    public List<CardDto> findAllCards() {
-        return cardRepository.findAll().stream().map(this::toCardDto).toList();
-    }
+    private final LedgerService ledgerService;
+    private final UserCardCache userCardCache;
 
     @Transactional(readOnly = true)
     public List<CardDto> findCardsByUser(UUID id) {
-        userValidatorService.validateUserExistsById(id);
-        return cardRepository.findByUserId(id).stream().map(this::toCardDto).toList();
+        List<Card> cards = cardRepository.findByUserId(id);
+        if (cards.isEmpty()) {
+            userValidatorService.validateUserExistsById(id);
+        }
+        return cards.stream().map(this::toCardDto).toList();
     }
 
     @Transactional
     public void deleteCard(UUID id) {
-        cardValidatorService.validateCardExists(id);
-        cardRepository.deleteById(id);
+        Optional<UUID> userId = cardRepository.findUserIdById(id);
+        cardValidatorService.ensureCardDeleted(userId.isPresent() ? cardRepository.deleteCardById(id) : 0);
+        userId.ifPresent(userCardCache::invalidate);
     }
 
     @Transactional
     public void createCard(CreateCardRequest card) {
-        cardValidatorService.ensureCardNotExistsByNumberHash(hashService.hmacSha256(card.getNumber()));
-        Card cardEntity = toCardEntity(card);
+        List<String> numberHashes = hashService.lookupHashes(card.getNumber());
+        cardValidatorService.ensureCardNotExistsByNumberHash(numberHashes);
+        userValidatorService.validateUserExistsById(card.getUserId());
+        Card cardEntity = toCardEntity(card, userRepository.getReferenceById(card.getUserId()), numberHashes.get(0));
         cardValidatorService.validateExpiryDate(cardEntity);
         cardValidatorService.validateCardMatchWithUser(cardEntity);
         cardRepository.save(cardEntity);
+        ledgerService.openCard(cardEntity);
+        userCardCache.invalidate(card.getUserId());
     }
 
     public Card findCardById(UUID id) {
-        cardValidatorService.validateCardExists(id);
-        return cardRepository.findById(id).get();
+        return cardValidatorService.ensureCardFound(cardRepository.findById(id));
+    }
+
+    private Card findLockedCardById(UUID id) {
+        return cardValidatorService.ensureCardFound(cardRepository.findLockedById(id));
     }
 
     @Transactional
     public void blockCard(UUID id) {
-        Card card = findCardById(id);
+        Card card = findLockedCardById(id);
         cardValidatorService.ensureCardStatusNotBlock(card);
-        cardValidatorService.validateExpiryDate(card);
+        cardValidatorService.ensureCardNotExpired(card);
         card.setStatus(CardStatus.BLOCKED);
         ticketRepository.deleteByCard_Id(id);
+        userCardCache.invalidate(card.getUser().getId());
     }
 
     @Transactional
     public void activateCard(UUID id) {
-        Card card = findCardById(id);
+        Card card = findLockedCardById(id);
         cardValidatorService.ensureCardStatusNotActive(card);
-        cardValidatorService.validateExpiryDate(card);
+        cardValidatorService.ensureCardNotExpired(card);
         card.setStatus(CardStatus.ACTIVE);
+        userCardCache.invalidate(card.getUser().getId());
     }
 
     public CardDto toCardDto(Card card) {
         return CardDto.builder()
                 .id(card.getId())
-                .maskedNumber(maskCardNumber(card.getNumber()))
+                .maskedNumber(maskCardNumber(card.getLast4()))
                 .owner(card.getOwner())
                 .expiryMonth(card.getExpiryMonth())
                 .expiryYear(card.getExpiryYear())
@@ -94,32 +111,26 @@ public class CardService {
     public Card toCardEntity(CreateCardRequest card) {
         userValidatorService.validateUserExistsById(card.getUserId());
         User user = userRepository.getReferenceById(card.getUserId());
-        String cardNumber = (card.getNumber());
+        return toCardEntity(card, user, hashService.hmacSha256(card.getNumber()));
+    }
+
+    public Card toCardEntity(CreateCardRequest card, User user, String numberHash) {
         return Card.builder()
                 .id(UUID.randomUUID())
-                .number(cardNumber)
+                .number(card.getNumber())
                 .owner(card.getOwner())
                 .expiryMonth(card.getExpiryMonth())
                 .expiryYear(card.getExpiryYear())
                 .status(card.getStatus())
                 .balance(card.getBalance())
                 .user(user)
-                .numberHash(hashService.hmacSha256(cardNumber))
+                .numberHash(numberHash)
                 .build();
     }
 
 
-    private String maskCardNumber(String number) {
-        int len = number.length();
-        return "**** **** **** " + number.substring(len - 4);
-    }
-
-    public List<CardDto> getUsersCard(int page, CardStatus status) {
-        final int size = 2;
-        Pageable pageable = PageRequest.of(page - 1, size);
-        UUID userId = userService.getCurrentUser().getId();
-        Page<Card> cardPage = cardRepository.findByUserIdAndStatus(userId, status, pageable);
-        return cardPage.getContent().stream().map(this::toCardDto).toList();
+    private String maskCardNumber(String last4) {
+        return "**** **** **** " + last4;
     }
 
 
@@ -128,12 +139,69 @@ public class CardService {
         UUID fromId = moneyTransferDto.getFromCardId();
         UUID toId = moneyTransferDto.getToCardId();
         BigDecimal amount = moneyTransferDto.getAmount();
+        cardValidatorService.ensureCardIdNotEquals(fromId, toId);
         UUID userId = userService.getCurrentUser().getId();
-        Card fromCard = cardRepository.findCardByIdAndUser_Id(fromId, userId);
-        Card toCard = cardRepository.findCardByIdAndUser_Id(toId, userId);
+        Map<UUID, Card> lockedCards = lockCards(List.of(fromId, toId), userId);
+        Card fromCard = lockedCards.get(fromId);
+        Card toCard = lockedCards.get(toId);
         cardValidatorService.validateTransfer(fromCard, toCard, amount);
         fromCard.setBalance(fromCard.getBalance().subtract(amount));
         toCard.setBalance(toCard.getBalance().add(amount));
+        ledgerService.recordTransfer(fromCard, toCard, amount);
+        userCardCache.invalidate(userId);
+    }
+
+    @Transactional
+    public List<TransferResultDto> moneyTransferBatch(List<MoneyTransferDto> transfers) {
+        cardValidatorService.ensureTransferBatchSize(transfers.size());
+        UUID userId = userService.getCurrentUser().getId();
+        Set<UUID> cardIds = new HashSet<>();
+        transfers.forEach(transfer -> {
+            cardIds.add(transfer.getFromCardId());
+            cardIds.add(transfer.getToCardId());
+        });
+        Map<UUID, Card> lockedCards = lockCards(cardIds, userId);
+        List<TransferResultDto> results = new ArrayList<>(transfers.size());
+        List<MoneyTransferDto> applied = new ArrayList<>(transfers.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            MoneyTransferDto transfer = transfers.get(i);
+            try {
+                applyTransfer(transfer, lockedCards);
+                applied.add(transfer);
+                results.add(toTransferResult(i, transfer, null));
+            } catch (BusinessException e) {
+                results.add(toTransferResult(i, transfer, e.getMessage()));
+            }
+        }
+        ledgerService.recordTransfers(applied);
+        if (!applied.isEmpty()) {
+            userCardCache.invalidate(userId);
+        }
+        return results;
+    }
+
+    private void applyTransfer(MoneyTransferDto transfer, Map<UUID, Card> lockedCards) {
+        cardValidatorService.ensureCardIdNotEquals(transfer.getFromCardId(), transfer.getToCardId());
+        Card fromCard = lockedCards.get(transfer.getFromCardId());
+        Card toCard = lockedCards.get(transfer.getToCardId());
+        cardValidatorService.validateTransfer(fromCard, toCard, transfer.getAmount());
+        fromCard.setBalance(fromCard.getBalance().subtract(transfer.getAmount()));
+        toCard.setBalance(toCard.getBalance().add(transfer.getAmount()));
+    }
+
+    private TransferResultDto toTransferResult(int index, MoneyTransferDto transfer, String error) {
+        return TransferResultDto.builder()
+                .index(index)
+                .fromCardId(transfer.getFromCardId())
+                .toCardId(transfer.getToCardId())
+                .amount(transfer.getAmount())
+                .success(error == null)
+                .error(error)
+                .build();
+    }
 
+    private Map<UUID, Card> lockCards(Collection<UUID> ids, UUID userId) {
+        return cardRepository.findAllForUpdate(ids, userId).stream()
+                .collect(Collectors.toMap(Card::getId, Function.identity()));
     }
 }
@@ -9,7 +9,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -23,6 +27,9 @@ public class CardValidatorService {
     private final String notEnoughBalanceExceptionMessage;
     private final String wrongCardExpiryDate;
     private final String cardStatusException;
+    private final String transferBatchTooLargeMessage;
+    private final int maxTransferBatchSize;
+    private final Clock clock;
 
     public CardValidatorService(@Value("${app.card.exception-message.already-exists-by.number}") String cardExistsByNumberMessage,
                                 CardRepository cardRepository,
@@ -32,7 +39,10 @@ public class CardValidatorService {
                                 @Value("${app.card.exception-message.equal-id}") String cardEqualIdExceptionMessage,
                                 @Value("${app.card.exception-message.not-enough-balance}") String notEnoughBalanceExceptionMessage,
                                 @Value("${app.card.exception-message.card-expiry}") String wrongCardExpiryDate,
-                                @Value("${app.card.exception-message.card-status}") String cardStatusException) {
+                                @Value("${app.card.exception-message.card-status}") String cardStatusException,
+                                @Value("${app.card.exception-message.transfer-batch-too-large}") String transferBatchTooLargeMessage,
+                                @Value("${app.card.transfer-batch.max-size}") int maxTransferBatchSize,
+                                Clock clock) {
         this.cardExistsByNumberMessage = cardExistsByNumberMessage;
         this.cardRepository = cardRepository;
         this.cardNotFoundByNumberMessage = cardNotFoundByNumberMessage;
@@ -42,10 +52,19 @@ public class CardValidatorService {
         this.notEnoughBalanceExceptionMessage = notEnoughBalanceExceptionMessage;
         this.wrongCardExpiryDate = wrongCardExpiryDate;
         this.cardStatusException = cardStatusException;
+        this.transferBatchTooLargeMessage = transferBatchTooLargeMessage;
+        this.maxTransferBatchSize = maxTransferBatchSize;
+        this.clock = clock;
     }
 
-    public void ensureCardNotExistsByNumberHash(String hash) {
-        if (cardRepository.existsCardByNumberHash(hash)) {
+    public void ensureCardNotExistsByNumberHash(Collection<String> hashes) {
+        if (cardRepository.existsCardByNumberHashIn(hashes)) {
+            throw new CardAlreadyExistsException(cardExistsByNumberMessage);
+        }
+    }
+
+    public void ensureCardNotExistsByNumberHash(Collection<String> hashes, Set<String> existingHashes) {
+        if (hashes.stream().anyMatch(existingHashes::contains)) {
             throw new CardAlreadyExistsException(cardExistsByNumberMessage);
         }
     }
@@ -56,18 +75,29 @@ public class CardValidatorService {
         }
     }
 
-    public void validateCardExists(UUID id) {
-        if (!cardRepository.existsCardById(id)) {
+    public Card ensureCardFound(Optional<Card> card) {
+        return card.orElseThrow(() -> new CardNotFoundException(cardNotFoundByIdMessage));
+    }
+
+    public void ensureCardDeleted(int deletedRows) {
+        if (deletedRows == 0) {
             throw new CardNotFoundException(cardNotFoundByIdMessage);
         }
     }
 
     public void validateCardMatchWithUser(Card card) {
-        boolean hasAnyCard = cardRepository.existsByUser_Id(card.getUser().getId());
+        cardRepository.findFirstByUser_Id(card.getUser().getId())
+                .ifPresent(existing -> validateCardOwner(card, existing.getOwner()));
+    }
 
-        if (hasAnyCard && !cardRepository.findFirstByUser_Id(card.getUser().getId())
-                .getOwner()
-                .equals(card.getOwner())) {
+    public void validateCardBelongsToUser(Card card, UUID userId) {
+        if (!card.getUser().getId().equals(userId)) {
+            throw new CardOwnerException(wrongCardOwnerException);
+        }
+    }
+
+    public void validateCardOwner(Card card, String expectedOwner) {
+        if (expectedOwner != null && !expectedOwner.equals(card.getOwner())) {
             throw new CardOwnerException(wrongCardOwnerException);
         }
     }
@@ -78,6 +108,12 @@ public class CardValidatorService {
         }
     }
 
+    public void ensureTransferBatchSize(int size) {
+        if (size > maxTransferBatchSize) {
+            throw new CardException(transferBatchTooLargeMessage);
+        }
+    }
+
     public void validateTransfer(Card from, Card to, BigDecimal amount) {
         if (from == null) {
             throw new CardNotFoundException(cardNotFoundByIdMessage);
@@ -88,15 +124,20 @@ public class CardValidatorService {
         if (from.getBalance().compareTo(amount) < 0) {
             throw new NotEnoughBalanceException(notEnoughBalanceExceptionMessage);
         }
+        ensureCardNotExpired(from);
+        ensureCardNotExpired(to);
         validateCardStatus(from, CardStatus.ACTIVE);
         validateCardStatus(to, CardStatus.ACTIVE);
-        validateExpiryDate(from);
-        validateExpiryDate(to);
+    }
 
+    public void ensureCardNotExpired(Card card) {
+        if (card.getStatus() == CardStatus.EXPIRED) {
+            throw new CardExpiryDateException(wrongCardExpiryDate);
+        }
     }
 
     public void validateExpiryDate(Card card) {
-        LocalDate today = LocalDate.now();
+        LocalDate today = LocalDate.now(clock);
         int todayYear = today.getYear();
         int todayMonth = today.getMonthValue();
         if ((card.getExpiryYear() == todayYear && card.getExpiryMonth() < todayMonth) || (card.getExpiryYear() < todayYear)) {
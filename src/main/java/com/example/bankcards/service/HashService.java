@@ -8,24 +8,71 @@ import org.springframework.stereotype.Service;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.util.Base64;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 @Service
 public class HashService {
+    public static final String CURRENT_VERSION_PREFIX = "v2:";
+    private static final String ALGORITHM = "HmacSHA256";
     private final String pan;
+    private final Mac prototype;
+    private final Queue<Mac> macs = new ConcurrentLinkedQueue<>();
+    private final boolean legacyLookup;
 
-    public HashService(@Value("${app.card.pan-for-number}") String pan) {
+    public HashService(@Value("${app.card.pan-for-number}") String pan,
+                       @Value("${app.card.number-hash.legacy-lookup}") boolean legacyLookup) {
         this.pan = pan;
+        this.legacyLookup = legacyLookup;
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(pan.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String hmacSha256(String number) {
+        Mac mac = borrowMac();
+        byte[] hash = mac.doFinal(number.getBytes(StandardCharsets.UTF_8));
+        macs.offer(mac);
+        return CURRENT_VERSION_PREFIX + Base64.getEncoder().encodeToString(hash);
     }
 
-    public String hmacSha256(String secret) {
+    public String legacyHmacSha256(String number) {
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(number.getBytes(StandardCharsets.UTF_8), ALGORITHM));
             byte[] hash = mac.doFinal(pan.getBytes(StandardCharsets.UTF_8));
             return Base64.getEncoder().encodeToString(hash);
         } catch (Exception e) {
             throw new ServerException();
         }
     }
+
+    public List<String> lookupHashes(String number) {
+        String current = hmacSha256(number);
+        return legacyLookup ? List.of(current, legacyHmacSha256(number)) : List.of(current);
+    }
+
+    private Mac borrowMac() {
+        Mac pooled = macs.poll();
+        if (pooled != null) {
+            return pooled;
+        }
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(new SecretKeySpec(pan.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+                return mac;
+            } catch (GeneralSecurityException ex) {
+                throw new ServerException();
+            }
+        }
+    }
 }
@@ -0,0 +1,125 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.IdempotencyRecord;
+import com.example.bankcards.exception.IdempotencyException;
+import com.example.bankcards.exception.ServerException;
+import com.example.bankcards.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotencyService {
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, IdempotencyRecord> recentKeys;
+    private final Duration ttl;
+    private final int maxKeyLength;
+    private final String keyTooLongMessage;
+    private final String keyReusedMessage;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${app.idempotency.ttl}") Duration ttl,
+                              @Value("${app.idempotency.cache.max-size}") long cacheMaxSize,
+                              @Value("${app.idempotency.max-key-length}") int maxKeyLength,
+                              @Value("${app.idempotency.exception-message.key-too-long}") String keyTooLongMessage,
+                              @Value("${app.idempotency.exception-message.key-reused}") String keyReusedMessage) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.ttl = ttl;
+        this.maxKeyLength = maxKeyLength;
+        this.keyTooLongMessage = keyTooLongMessage;
+        this.keyReusedMessage = keyReusedMessage;
+    }
+
+    public ResponseEntity<String> execute(String scope, String key, Object request, Supplier<ResponseEntity<String>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.length() > maxKeyLength) {
+            throw new IdempotencyException(keyTooLongMessage);
+        }
+        String id = scope + ":" + SecurityContextHolder.getContext().getAuthentication().getName() + ":" + key;
+        String requestHash = fingerprint(request);
+
+        IdempotencyRecord stored = findStored(id);
+        if (stored != null) {
+            return replay(stored, requestHash);
+        }
+        try {
+            IdempotencyRecord record = transactionTemplate.execute(status -> {
+                ResponseEntity<String> response = action.get();
+                return repository.saveAndFlush(IdempotencyRecord.builder()
+                        .id(id)
+                        .requestHash(requestHash)
+                        .responseStatus(response.getStatusCode().value())
+                        .responseBody(response.getBody())
+                        .createdAt(Instant.now())
+                        .build());
+            });
+            recentKeys.put(id, record);
+            return toResponse(record);
+        } catch (DataIntegrityViolationException e) {
+            return replay(repository.findById(id).orElseThrow(() -> e), requestHash);
+        }
+    }
+
+    @Transactional
+    public int removeExpired() {
+        return repository.deleteCreatedBefore(Instant.now().minus(ttl));
+    }
+
+    private IdempotencyRecord findStored(String id) {
+        IdempotencyRecord cached = recentKeys.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        return repository.findById(id)
+                .map(record -> {
+                    recentKeys.put(id, record);
+                    return record;
+                })
+                .orElse(null);
+    }
+
+    private ResponseEntity<String> replay(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyException(keyReusedMessage);
+        }
+        return toResponse(record);
+    }
+
+    private ResponseEntity<String> toResponse(IdempotencyRecord record) {
+        return ResponseEntity.status(record.getResponseStatus()).body(record.getResponseBody());
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (Exception e) {
+            throw new ServerException();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.LedgerEntryDto;
+import com.example.bankcards.dto.MoneyTransferDto;
+import com.example.bankcards.dto.StatementDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardBalanceSnapshot;
+import com.example.bankcards.entity.LedgerEntry;
+import com.example.bankcards.exception.StatementPeriodException;
+import com.example.bankcards.repository.CardBalanceSnapshotRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class LedgerService {
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final CardBalanceSnapshotRepository snapshotRepository;
+    private final CardRepository cardRepository;
+    private final CardValidatorService cardValidatorService;
+    private final UserService userService;
+    private final String invertedPeriodMessage;
+
+    public LedgerService(LedgerEntryRepository ledgerEntryRepository,
+                         CardBalanceSnapshotRepository snapshotRepository,
+                         CardRepository cardRepository,
+                         CardValidatorService cardValidatorService,
+                         UserService userService,
+                         @Value("${app.ledger.exception-message.inverted-period}") String invertedPeriodMessage) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.cardRepository = cardRepository;
+        this.cardValidatorService = cardValidatorService;
+        this.userService = userService;
+        this.invertedPeriodMessage = invertedPeriodMessage;
+    }
+
+    public void recordTransfer(Card from, Card to, BigDecimal amount) {
+        Instant now = Instant.now();
+        ledgerEntryRepository.saveAll(toLedgerEntries(from.getId(), to.getId(), amount, now));
+    }
+
+    public void recordTransfers(List<MoneyTransferDto> transfers) {
+        Instant now = Instant.now();
+        ledgerEntryRepository.saveAll(transfers.stream()
+                .flatMap(transfer -> toLedgerEntries(transfer.getFromCardId(), transfer.getToCardId(),
+                        transfer.getAmount(), now).stream())
+                .toList());
+    }
+
+    public void openCard(Card card) {
+        snapshotRepository.save(toSnapshot(card, Instant.now()));
+    }
+
+    public void openCards(List<Card> cards) {
+        Instant now = Instant.now();
+        snapshotRepository.saveAll(cards.stream().map(card -> toSnapshot(card, now)).toList());
+    }
+
+    @Transactional
+    public void takeSnapshot(UUID cardId) {
+        cardRepository.findLockedById(cardId)
+                .ifPresent(card -> snapshotRepository.save(toSnapshot(card, Instant.now())));
+    }
+
+    @Transactional(readOnly = true)
+    public List<UUID> findCardsChangedAfter(Instant since) {
+        return ledgerEntryRepository.findCardIdsWithEntriesAfter(since);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Instant> findLatestSnapshotTime() {
+        return snapshotRepository.findLatestTakenAt();
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal balanceAt(UUID cardId, Instant at) {
+        Optional<CardBalanceSnapshot> snapshot = snapshotRepository
+                .findFirstByCardIdAndTakenAtLessThanEqualOrderByTakenAtDesc(cardId, at);
+        if (snapshot.isPresent()) {
+            return snapshot.get().getBalance()
+                    .add(ledgerEntryRepository.sumAmountBetween(cardId, snapshot.get().getTakenAt(), at));
+        }
+        Card card = cardValidatorService.ensureCardFound(cardRepository.findById(cardId));
+        return card.getBalance().subtract(ledgerEntryRepository.sumAmountAfter(cardId, at));
+    }
+
+    @Transactional(readOnly = true)
+    public StatementDto getStatement(UUID cardId, Instant from, Instant to) {
+        if (from.isAfter(to)) {
+            throw new StatementPeriodException(invertedPeriodMessage);
+        }
+        UUID userId = userService.getCurrentUser().getId();
+        cardValidatorService.ensureCardFound(cardRepository.findCardByIdAndUser_Id(cardId, userId));
+        BigDecimal openingBalance = balanceAt(cardId, from);
+        List<LedgerEntryDto> entries = ledgerEntryRepository
+                .findByCardIdAndCreatedAtGreaterThanAndCreatedAtLessThanEqualOrderByCreatedAt(cardId, from, to)
+                .stream()
+                .map(this::toLedgerEntryDto)
+                .toList();
+        BigDecimal closingBalance = entries.stream()
+                .map(LedgerEntryDto::getAmount)
+                .reduce(openingBalance, BigDecimal::add);
+        return StatementDto.builder()
+                .cardId(cardId)
+                .from(from)
+                .to(to)
+                .openingBalance(openingBalance)
+                .closingBalance(closingBalance)
+                .entries(entries)
+                .build();
+    }
+
+    private LedgerEntry toLedgerEntry(UUID transferId, UUID cardId, BigDecimal amount, Instant createdAt) {
+        return LedgerEntry.builder()
+                .transferId(transferId)
+                .cardId(cardId)
+                .amount(amount)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private List<LedgerEntry> toLedgerEntries(UUID fromId, UUID toId, BigDecimal amount, Instant createdAt) {
+        UUID transferId = UUID.randomUUID();
+        return List.of(
+                toLedgerEntry(transferId, fromId, amount.negate(), createdAt),
+                toLedgerEntry(transferId, toId, amount, createdAt));
+    }
+
+    private CardBalanceSnapshot toSnapshot(Card card, Instant takenAt) {
+        return CardBalanceSnapshot.builder()
+                .cardId(card.getId())
+                .balance(card.getBalance())
+                .takenAt(takenAt)
+                .build();
+    }
+
+    private LedgerEntryDto toLedgerEntryDto(LedgerEntry entry) {
+        return LedgerEntryDto.builder()
+                .transferId(entry.getTransferId())
+                .amount(entry.getAmount())
+                .createdAt(entry.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.bankcards.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class TicketIntakeQueue {
+    private final BlockingQueue<UUID> queue;
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    public TicketIntakeQueue(MeterRegistry meterRegistry,
+                             @Value("${app.ticket.intake.queue-capacity}") int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        Gauge.builder("bank.tickets.intake.queue", queue, BlockingQueue::size)
+                .description("Ticket requests waiting for the intake worker")
+                .register(meterRegistry);
+    }
+
+    public boolean offer(UUID requestId) {
+        if (!inFlight.add(requestId)) {
+            return true;
+        }
+        if (queue.offer(requestId)) {
+            return true;
+        }
+        inFlight.remove(requestId);
+        return false;
+    }
+
+    public void release(Collection<UUID> requestIds) {
+        requestIds.forEach(inFlight::remove);
+    }
+
+    public List<UUID> poll(int maxSize, Duration timeout) throws InterruptedException {
+        UUID first = queue.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return List.of();
+        }
+        List<UUID> batch = new ArrayList<>(maxSize);
+        batch.add(first);
+        queue.drainTo(batch, maxSize - 1);
+        return batch;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TicketPageDto;
+import com.example.bankcards.dto.TicketSummaryDto;
+import com.example.bankcards.repository.TicketRepository;
+import com.example.bankcards.repository.TicketRepository.TicketView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class TicketListingService {
+    private final TicketRepository ticketRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public TicketListingService(TicketRepository ticketRepository,
+                                @Value("${app.ticket.admin-page.default-size}") int defaultPageSize,
+                                @Value("${app.ticket.admin-page.max-size}") int maxPageSize) {
+        this.ticketRepository = ticketRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Transactional(readOnly = true)
+    public TicketPageDto findTicketsPage(UUID after, UUID userId, UUID cardId, Integer size) {
+        Limit limit = Limit.of(size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize));
+        List<TicketView> tickets = ticketRepository.findPage(after, userId, cardId, limit);
+        UUID nextCursor = tickets.size() < limit.max() ? null : tickets.get(tickets.size() - 1).getId();
+        return TicketPageDto.builder()
+                .tickets(tickets.stream().map(this::toTicketSummaryDto).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private TicketSummaryDto toTicketSummaryDto(TicketView ticket) {
+        return TicketSummaryDto.builder()
+                .id(ticket.getId())
+                .userId(ticket.getUserId())
+                .cardId(ticket.getCardId())
+                .build();
+    }
+}
@@ -1,52 +1,127 @@
 package com.example.bankcards.service;
 
-import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.dto.TicketDto;
+import com.example.bankcards.dto.TicketRequestDto;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.Ticket;
+import com.example.bankcards.entity.TicketRequest;
+import com.example.bankcards.entity.TicketRequestStatus;
+import com.example.bankcards.exception.BusinessException;
+import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TicketRepository;
+import com.example.bankcards.repository.TicketRequestRepository;
+import com.example.bankcards.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TicketService {
     private final UserService userService;
-    private final CardService cardService;
+    private final UserRepository userRepository;
+    private final CardRepository cardRepository;
     private final CardValidatorService cardValidatorService;
     private final TicketRepository ticketRepository;
+    private final TicketRequestRepository ticketRequestRepository;
     private final TicketValidatorService ticketValidatorService;
+    private final TicketIntakeQueue ticketIntakeQueue;
+
+    public TicketRequestDto submitTicket(TicketDto ticketDto) {
+        TicketRequest request = ticketRequestRepository.save(TicketRequest.builder()
+                .id(UUID.randomUUID())
+                .userId(userService.getCurrentUser().getId())
+                .cardId(ticketDto.getCardId())
+                .status(TicketRequestStatus.PENDING)
+                .createdAt(Instant.now())
+                .build());
+        ticketIntakeQueue.offer(request.getId());
+        return toTicketRequestDto(request);
+    }
+
+    @Transactional(readOnly = true)
+    public TicketRequestDto getTicketRequest(UUID id) {
+        return toTicketRequestDto(ticketValidatorService.ensureTicketRequestFound(
+                ticketRequestRepository.findByIdAndUserId(id, userService.getCurrentUser().getId())));
+    }
 
     @Transactional
-    public void createTicket(TicketDto ticketDto) {
-        ticketValidatorService.validateTicketExistByCardId(ticketDto.getCardId());
-        Card cardEntity = cardService.findCardById(ticketDto.getCardId());
-        cardValidatorService.validateCardMatchWithUser(cardEntity);
-        cardValidatorService.validateCardStatus(cardEntity, CardStatus.ACTIVE);
-        ticketRepository.save(convertToEntity(ticketDto));
+    public int processBatch(Collection<UUID> requestIds) {
+        List<TicketRequest> requests = ticketRequestRepository.findByIdInAndStatus(requestIds, TicketRequestStatus.PENDING);
+        if (requests.isEmpty()) {
+            return 0;
+        }
+        Set<UUID> cardIds = requests.stream().map(TicketRequest::getCardId).collect(Collectors.toSet());
+        Map<UUID, Card> cards = cardRepository.findAllById(cardIds).stream()
+                .collect(Collectors.toMap(Card::getId, Function.identity()));
+        Set<UUID> cardsWithTickets = new HashSet<>(ticketRepository.findCardIdsWithTickets(cardIds));
+
+        Instant processedAt = Instant.now();
+        List<Ticket> tickets = new ArrayList<>(requests.size());
+        for (TicketRequest request : requests) {
+            try {
+                Card card = cardValidatorService.ensureCardFound(Optional.ofNullable(cards.get(request.getCardId())));
+                cardValidatorService.validateCardBelongsToUser(card, request.getUserId());
+                cardValidatorService.validateCardStatus(card, CardStatus.ACTIVE);
+                ticketValidatorService.validateTicketExistByCardId(card.getId(), cardsWithTickets);
+                cardsWithTickets.add(card.getId());
+                tickets.add(convertToEntity(request, card));
+                request.complete(TicketRequestStatus.ACCEPTED, null, processedAt);
+            } catch (BusinessException e) {
+                request.complete(TicketRequestStatus.REJECTED, e.getMessage(), processedAt);
+            }
+        }
+        ticketRepository.saveAll(tickets);
+        return tickets.size();
+    }
+
+    @Transactional
+    public boolean recordFailedAttempt(UUID requestId, int maxAttempts, String error) {
+        return ticketRequestRepository.findByIdAndStatus(requestId, TicketRequestStatus.PENDING)
+                .map(request -> {
+                    request.recordFailedAttempt(maxAttempts, error, Instant.now());
+                    return request.getStatus() == TicketRequestStatus.FAILED;
+                })
+                .orElse(false);
     }
 
     @Transactional(readOnly = true)
-    public List<TicketDto> getAllTickets() {
-        return ticketRepository.findAll().stream().map(this::toTicketDto).toList();
+    public List<UUID> findStaleRequestIds(Duration staleAfter, int limit) {
+        return ticketRequestRepository.findIdsByStatusCreatedBefore(TicketRequestStatus.PENDING,
+                Instant.now().minus(staleAfter), Limit.of(limit));
     }
 
-    private Ticket convertToEntity(TicketDto ticketDto) {
+    private Ticket convertToEntity(TicketRequest request, Card card) {
         return Ticket.builder()
-                .user(userService.getCurrentUser())
-                .card(cardService.findCardById(ticketDto.getCardId()))
-                .id(UUID.randomUUID())
+                .id(request.getId())
+                .user(userRepository.getReferenceById(request.getUserId()))
+                .card(card)
                 .build();
     }
 
-    private TicketDto toTicketDto(Ticket ticket) {
-        return TicketDto.builder()
-                .cardId(ticket.getCard().getId())
+    private TicketRequestDto toTicketRequestDto(TicketRequest request) {
+        return TicketRequestDto.builder()
+                .ticketId(request.getId())
+                .cardId(request.getCardId())
+                .status(request.getStatus())
+                .error(request.getError())
+                .createdAt(request.getCreatedAt())
+                .processedAt(request.getProcessedAt())
                 .build();
     }
 }
@@ -1,22 +1,28 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.entity.TicketRequest;
 import com.example.bankcards.exception.TicketAlreadyExistsException;
+import com.example.bankcards.exception.TicketNotFoundException;
 import com.example.bankcards.repository.TicketRepository;
-import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class TicketValidatorService {
     private final TicketRepository ticketRepository;
     private final String ticketAlreadyExistsExceptionMessage;
+    private final String ticketNotFoundExceptionMessage;
 
     public TicketValidatorService(TicketRepository ticketRepository,
-                                  @Value("${app.ticket.already-exists-by.cardId}") String ticketAlreadyExistsExceptionMessage) {
+                                  @Value("${app.ticket.already-exists-by.cardId}") String ticketAlreadyExistsExceptionMessage,
+                                  @Value("${app.ticket.not-found-by.Id}") String ticketNotFoundExceptionMessage) {
         this.ticketRepository = ticketRepository;
         this.ticketAlreadyExistsExceptionMessage = ticketAlreadyExistsExceptionMessage;
+        this.ticketNotFoundExceptionMessage = ticketNotFoundExceptionMessage;
     }
 
     public void validateTicketExistByCardId(UUID cardId){
@@ -24,4 +30,14 @@ public class TicketValidatorService {
             throw new TicketAlreadyExistsException(ticketAlreadyExistsExceptionMessage);
         }
     }
+
+    public void validateTicketExistByCardId(UUID cardId, Set<UUID> cardsWithTickets) {
+        if (cardsWithTickets.contains(cardId)) {
+            throw new TicketAlreadyExistsException(ticketAlreadyExistsExceptionMessage);
+        }
+    }
+
+    public TicketRequest ensureTicketRequestFound(Optional<TicketRequest> request) {
+        return request.orElseThrow(() -> new TicketNotFoundException(ticketNotFoundExceptionMessage));
+    }
 }
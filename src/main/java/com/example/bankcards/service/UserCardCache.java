@@ -0,0 +1,136 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardSliceDto;
+import com.example.bankcards.entity.CardStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+@Service
+public class UserCardCache {
+    private static final int VERSION_STRIPES = 1024;
+    private final boolean enabled;
+    private final int maxPagesPerUser;
+    private final Cache<UUID, Map<PageKey, CardSliceDto>> pages;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+
+    public UserCardCache(MeterRegistry meterRegistry,
+                         @Value("${app.card.user-cache.enabled}") boolean enabled,
+                         @Value("${app.card.user-cache.max-users}") long maxUsers,
+                         @Value("${app.card.user-cache.max-pages-per-user}") int maxPagesPerUser,
+                         @Value("${app.card.user-cache.ttl}") Duration ttl) {
+        this.enabled = enabled;
+        this.maxPagesPerUser = maxPagesPerUser;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .build();
+        this.hits = Counter.builder("bank.cards.user-cache")
+                .description("Lookups of the per-user card list cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("bank.cards.user-cache")
+                .description("Lookups of the per-user card list cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("bank.cards.user-cache.invalidations")
+                .description("Users whose cached card lists were dropped after a card change")
+                .register(meterRegistry);
+        Gauge.builder("bank.cards.user-cache.users", pages, Cache::estimatedSize)
+                .description("Users with cached card lists")
+                .register(meterRegistry);
+    }
+
+    public CardSliceDto get(UUID userId, CardStatus status, int page, int size, Supplier<CardSliceDto> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        PageKey key = new PageKey(status, page, size);
+        Map<PageKey, CardSliceDto> userPages = pages.getIfPresent(userId);
+        CardSliceDto cached = userPages == null ? null : userPages.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        int stripe = stripe(userId);
+        long version = versions.get(stripe);
+        CardSliceDto loaded = loader.get();
+        userPages = pages.get(userId, id -> new ConcurrentHashMap<>());
+        if (userPages.size() >= maxPagesPerUser) {
+            userPages.clear();
+        }
+        userPages.put(key, loaded);
+        if (versions.get(stripe) != version) {
+            pages.invalidate(userId);
+        }
+        return loaded;
+    }
+
+    public void invalidate(UUID userId) {
+        invalidate(List.of(userId));
+    }
+
+    public void invalidate(Collection<UUID> userIds) {
+        if (enabled && !userIds.isEmpty()) {
+            List<UUID> users = List.copyOf(userIds);
+            afterCompletion(() -> users.forEach(this::evict));
+        }
+    }
+
+    public void invalidateAll() {
+        if (enabled) {
+            afterCompletion(() -> {
+                for (int i = 0; i < VERSION_STRIPES; i++) {
+                    versions.incrementAndGet(i);
+                }
+                invalidations.increment(pages.estimatedSize());
+                pages.invalidateAll();
+            });
+        }
+    }
+
+    private void evict(UUID userId) {
+        versions.incrementAndGet(stripe(userId));
+        invalidations.increment();
+        pages.invalidate(userId);
+    }
+
+    private void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+
+    private static int stripe(UUID userId) {
+        return userId.hashCode() & (VERSION_STRIPES - 1);
+    }
+
+    private record PageKey(CardStatus status, int page, int size) {
+    }
+}
@@ -3,19 +3,27 @@ package com.example.bankcards.service;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository repository;
     private final UserValidatorService userValidatorService;
+    private final PrincipalCache principalCache;
 
     public User save(User user) {
-        return repository.save(user);
+        User saved = repository.save(user);
+        principalCache.invalidate(saved.getUsername());
+        return saved;
     }
 
 
@@ -27,19 +35,32 @@ public class UserService {
 
 
     public User getByUsername(String username) {
-        userValidatorService.validateUserExistByUsername(username);
-        return repository.findByUsername(username).get();
+        return userValidatorService.ensureUserFoundByUsername(repository.findByUsername(username));
 
     }
 
 
+    public Optional<User> findByUsername(String username) {
+        return repository.findByUsername(username);
+    }
+
+    @Transactional
+    public void updatePassword(User user, String encodedPassword) {
+        repository.updatePassword(user.getId(), encodedPassword);
+        user.setPassword(encodedPassword);
+        principalCache.invalidate(user.getUsername());
+    }
+
     public UserDetailsService userDetailsService() {
         return this::getByUsername;
     }
 
     public User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return getByUsername(username);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof User user) {
+            return user;
+        }
+        return getByUsername(authentication.getName());
     }
 
 }
\ No newline at end of file
@@ -1,11 +1,14 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.UserAlreadyExistException;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -33,11 +36,15 @@ public class UserValidatorService {
             throw new UserNotFoundException(notExistsByIdExceptionMessage);
         }
     }
-    public void validateUserExistByUsername(String username) {
-        if (!userRepository.existsByUsername(username)){
-            throw new UserNotFoundException(notExistsByUsernameExceptionMessage);
+    public void validateUserExistsById(UUID id, Set<UUID> existingIds) {
+        if (!existingIds.contains(id)) {
+            throw new UserNotFoundException(notExistsByIdExceptionMessage);
         }
     }
+
+    public User ensureUserFoundByUsername(Optional<User> user) {
+        return user.orElseThrow(() -> new UserNotFoundException(notExistsByUsernameExceptionMessage));
+    }
     public void ensureUserNotExistByUsername(String username) {
         if (userRepository.existsByUsername(username)){
             throw new UserAlreadyExistException(alreadyExistsByUsername);
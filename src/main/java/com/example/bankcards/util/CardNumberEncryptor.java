@@ -1,20 +0,0 @@
-package com.example.bankcards.util;
-
-import jakarta.persistence.AttributeConverter;
-import jakarta.persistence.Converter;
-
-@Converter
-public class CardNumberEncryptor implements AttributeConverter<String, String> {
-
-    @Override
-    public String convertToDatabaseColumn(String attribute) {
-        if (attribute == null) return null;
-        return EncryptionHolder.getCrypto().encrypt(attribute);
-    }
-
-    @Override
-    public String convertToEntityAttribute(String dbData) {
-        if (dbData == null) return null;
-        return EncryptionHolder.getCrypto().decrypt(dbData);
-    }
-}
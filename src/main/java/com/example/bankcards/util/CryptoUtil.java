@@ -3,31 +3,45 @@ package com.example.bankcards.util;
 import javax.crypto.Cipher;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class CryptoUtil {
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final byte FORMAT_VERSION = 1;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+    private static final int HEADER_LENGTH = 1 + IV_LENGTH;
+    private static final char LEGACY_SEPARATOR = ':';
 
-    private final byte[] key;
+    private final SecretKeySpec key;
     private final SecureRandom random = new SecureRandom();
+    private final Queue<Cipher> ciphers = new ConcurrentLinkedQueue<>();
 
     public CryptoUtil(byte[] key) {
-        this.key = key;
+        this.key = new SecretKeySpec(key, "AES");
     }
 
     public String encrypt(String plaintext) {
         try {
-            byte[] iv = new byte[12];
+            byte[] data = plaintext.getBytes(StandardCharsets.UTF_8);
+            byte[] iv = new byte[IV_LENGTH];
             random.nextBytes(iv);
 
-            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
-            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"),
-                    new GCMParameterSpec(128, iv));
+            byte[] envelope = new byte[HEADER_LENGTH + data.length + TAG_LENGTH_BITS / 8];
+            envelope[0] = FORMAT_VERSION;
+            System.arraycopy(iv, 0, envelope, 1, IV_LENGTH);
 
-            byte[] encrypted = cipher.doFinal(plaintext.getBytes());
-            return Base64.getEncoder().encodeToString(iv)
-                    + ":"
-                    + Base64.getEncoder().encodeToString(encrypted);
+            Cipher cipher = borrowCipher();
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            cipher.doFinal(data, 0, data.length, envelope, HEADER_LENGTH);
+            ciphers.offer(cipher);
+
+            return Base64.getEncoder().encodeToString(envelope);
 
         } catch (Exception e) {
             throw new RuntimeException("Encryption error", e);
@@ -36,18 +50,41 @@ public class CryptoUtil {
 
     public String decrypt(String ciphertext) {
         try {
-            String[] parts = ciphertext.split(":");
-            byte[] iv = Base64.getDecoder().decode(parts[0]);
-            byte[] encrypted = Base64.getDecoder().decode(parts[1]);
+            if (ciphertext.indexOf(LEGACY_SEPARATOR) >= 0) {
+                return decryptLegacy(ciphertext);
+            }
+            byte[] envelope = Base64.getDecoder().decode(ciphertext);
+            if (envelope.length <= HEADER_LENGTH || envelope[0] != FORMAT_VERSION) {
+                throw new GeneralSecurityException("Unsupported ciphertext format");
+            }
 
-            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
-            cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key, "AES"),
-                    new GCMParameterSpec(128, iv));
+            Cipher cipher = borrowCipher();
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, envelope, 1, IV_LENGTH));
+            byte[] plaintext = cipher.doFinal(envelope, HEADER_LENGTH, envelope.length - HEADER_LENGTH);
+            ciphers.offer(cipher);
 
-            return new String(cipher.doFinal(encrypted));
+            return new String(plaintext, StandardCharsets.UTF_8);
 
         } catch (Exception e) {
             throw new RuntimeException("Decryption error", e);
         }
     }
+
+    private String decryptLegacy(String ciphertext) throws GeneralSecurityException {
+        String[] parts = ciphertext.split(String.valueOf(LEGACY_SEPARATOR));
+        byte[] iv = Base64.getDecoder().decode(parts[0]);
+        byte[] encrypted = Base64.getDecoder().decode(parts[1]);
+
+        Cipher cipher = borrowCipher();
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+        byte[] plaintext = cipher.doFinal(encrypted);
+        ciphers.offer(cipher);
+
+        return new String(plaintext, StandardCharsets.UTF_8);
+    }
+
+    private Cipher borrowCipher() throws GeneralSecurityException {
+        Cipher cipher = ciphers.poll();
+        return cipher != null ? cipher : Cipher.getInstance(TRANSFORMATION);
+    }
 }
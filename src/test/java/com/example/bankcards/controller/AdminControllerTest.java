@@ -2,14 +2,21 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.TestSecurityConfig;
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardIssuanceResultDto;
+import com.example.bankcards.dto.CardPageDto;
 import com.example.bankcards.dto.CreateCardRequest;
-import com.example.bankcards.dto.TicketDto;
+import com.example.bankcards.dto.TicketPageDto;
+import com.example.bankcards.dto.TicketSummaryDto;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.service.CardIssuanceService;
+import com.example.bankcards.service.CardListingService;
 import com.example.bankcards.service.CardService;
-import com.example.bankcards.service.TicketService;
+import com.example.bankcards.service.IdempotencyService;
+import com.example.bankcards.service.TicketListingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -17,13 +24,18 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -43,23 +55,103 @@ class AdminControllerTest {
     private CardService cardService;
 
     @MockitoBean
-    private TicketService ticketService;
+    private TicketListingService ticketListingService;
+
+    @MockitoBean
+    private CardListingService cardListingService;
+
+    @MockitoBean
+    private CardIssuanceService cardIssuanceService;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @BeforeEach
+    void setUp() {
+        when(idempotencyService.execute(any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<ResponseEntity<String>>>getArgument(3).get());
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
-    void allCards_shouldReturnAllCards() throws Exception {
-        List<CardDto> cards = List.of(new CardDto());
-        when(cardService.findAllCards()).thenReturn(cards);
+    void allCards_shouldReturnCardPage() throws Exception {
+        UUID after = UUID.randomUUID();
+        UUID nextCursor = UUID.randomUUID();
+        CardPageDto page = CardPageDto.builder()
+                .cards(List.of(CardDto.builder().id(nextCursor).build()))
+                .nextCursor(nextCursor)
+                .build();
+        when(cardListingService.findCardsPage(after, 1)).thenReturn(page);
 
         mockMvc.perform(get("/admin/card")
+                        .param("after", after.toString())
+                        .param("size", "1")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(1));
+                .andExpect(jsonPath("$.cards.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value(nextCursor.toString()));
+
+        verify(cardListingService, times(1)).findCardsPage(after, 1);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void streamAllCards_shouldWriteNdjson() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"owner\":\"IVAN IVANOV\"}\n".getBytes());
+            return null;
+        }).when(cardListingService).streamAllCards(any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/admin/card/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"owner\":\"IVAN IVANOV\"}\n"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void issueCardsFromJson_shouldReturnIssuanceResult() throws Exception {
+        CardIssuanceResultDto result = CardIssuanceResultDto.builder()
+                .received(2)
+                .created(2)
+                .errors(List.of())
+                .build();
+        when(cardIssuanceService.issueFromJson(any(InputStream.class))).thenReturn(result);
 
-        verify(cardService, times(1)).findAllCards();
+        mockMvc.perform(post("/admin/card/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2));
+
+        verify(cardIssuanceService, times(1)).issueFromJson(any(InputStream.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void issueCardsFromCsv_shouldReturnIssuanceResult() throws Exception {
+        CardIssuanceResultDto result = CardIssuanceResultDto.builder()
+                .received(1)
+                .rejected(1)
+                .errors(List.of())
+                .build();
+        when(cardIssuanceService.issueFromCsv(any(InputStream.class))).thenReturn(result);
+
+        mockMvc.perform(post("/admin/card/bulk")
+                        .contentType("text/csv")
+                        .content("number,owner,expiryMonth,expiryYear,status,balance,userId\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rejected").value(1));
+
+        verify(cardIssuanceService, times(1)).issueFromCsv(any(InputStream.class));
     }
 
     @Test
@@ -191,16 +283,39 @@ class AdminControllerTest {
 
     @Test
     @WithMockUser(roles = "ADMIN")
-    void tickets_shouldReturnAllTickets() throws Exception {
-        List<TicketDto> tickets = List.of(new TicketDto());
-        when(ticketService.getAllTickets()).thenReturn(tickets);
+    void tickets_shouldReturnPageWithNextCursor() throws Exception {
+        UUID ticketId = UUID.randomUUID();
+        TicketPageDto page = TicketPageDto.builder()
+                .tickets(List.of(TicketSummaryDto.builder().id(ticketId).build()))
+                .nextCursor(ticketId)
+                .build();
+        when(ticketListingService.findTicketsPage(null, null, null, null)).thenReturn(page);
 
         mockMvc.perform(get("/admin/ticket")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(1));
+                .andExpect(jsonPath("$.tickets.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value(ticketId.toString()));
+
+        verify(ticketListingService, times(1)).findTicketsPage(null, null, null, null);
+    }
 
-        verify(ticketService, times(1)).getAllTickets();
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void tickets_withFilters_shouldPassThemToListing() throws Exception {
+        UUID after = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        UUID cardId = UUID.randomUUID();
+        when(ticketListingService.findTicketsPage(after, userId, cardId, 20))
+                .thenReturn(TicketPageDto.builder().tickets(List.of()).build());
+
+        mockMvc.perform(get("/admin/ticket")
+                        .param("after", after.toString())
+                        .param("userId", userId.toString())
+                        .param("cardId", cardId.toString())
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tickets.length()").value(0));
     }
 
 }
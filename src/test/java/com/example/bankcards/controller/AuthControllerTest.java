@@ -0,0 +1,127 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.TestSecurityConfig;
+import com.example.bankcards.dto.JwtAuthenticationResponse;
+import com.example.bankcards.dto.RefreshTokenRequest;
+import com.example.bankcards.dto.SignInRequest;
+import com.example.bankcards.exception.RefreshTokenException;
+import com.example.bankcards.exception.TooManySignInAttemptsException;
+import com.example.bankcards.security.AuthenticationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(
+        value = AuthController.class,
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ASSIGNABLE_TYPE,
+                classes = com.example.bankcards.security.JwtAuthenticationFilter.class
+        )
+)
+@Import(TestSecurityConfig.class)
+class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private AuthenticationService authenticationService;
+
+    private SignInRequest request;
+
+    @BeforeEach
+    void setUp() {
+        request = new SignInRequest();
+        request.setUsername("john_doe");
+        request.setPassword("my_1secret1_password");
+    }
+
+    @Test
+    void signIn_shouldReturnToken() throws Exception {
+        when(authenticationService.signIn(any(SignInRequest.class))).thenReturn(JwtAuthenticationResponse.builder().token("jwt").refreshToken("refresh").build());
+
+        mockMvc.perform(post("/auth/sign-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("jwt"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh"));
+    }
+
+    @Test
+    void refresh_shouldReturnRotatedTokens() throws Exception {
+        when(authenticationService.refresh(new RefreshTokenRequest("refresh")))
+                .thenReturn(JwtAuthenticationResponse.builder().token("jwt").refreshToken("next").build());
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest("refresh"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("jwt"))
+                .andExpect(jsonPath("$.refreshToken").value("next"));
+    }
+
+    @Test
+    void refresh_withReusedToken_shouldReturnBadRequest() throws Exception {
+        when(authenticationService.refresh(any(RefreshTokenRequest.class)))
+                .thenThrow(new RefreshTokenException("Refresh token was already used, all sessions have been revoked"));
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest("refresh"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.refreshToken").exists());
+    }
+
+    @Test
+    void refresh_withBlankToken_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest(""))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(authenticationService);
+    }
+
+    @Test
+    void logout_shouldPassBearerTokenAndReturnNoContent() throws Exception {
+        mockMvc.perform(post("/auth/logout")
+                        .header("Authorization", "Bearer jwt")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest("refresh"))))
+                .andExpect(status().isNoContent());
+
+        verify(authenticationService).logout(new RefreshTokenRequest("refresh"), "jwt");
+    }
+
+    @Test
+    void signIn_whenVerifierIsSaturated_shouldReturnTooManyRequestsWithRetryAfter() throws Exception {
+        when(authenticationService.signIn(any(SignInRequest.class)))
+                .thenThrow(new TooManySignInAttemptsException("Too many sign-in attempts, try again later", Duration.ofSeconds(3)));
+
+        mockMvc.perform(post("/auth/sign-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "3"))
+                .andExpect(jsonPath("$.signIn").value("Too many sign-in attempts, try again later"));
+    }
+}
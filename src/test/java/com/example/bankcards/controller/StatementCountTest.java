@@ -0,0 +1,318 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.CreateCardRequest;
+import com.example.bankcards.dto.MoneyTransferDto;
+import com.example.bankcards.dto.RefreshTokenRequest;
+import com.example.bankcards.dto.TicketDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.Ticket;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TicketRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.RefreshTokenService;
+import com.example.bankcards.service.HashService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.ticket.intake.worker-enabled=false",
+        "app.security.revocation.sync-delay=1h",
+        "app.card.number-hash.rehash-initial-delay=1h"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class StatementCountTest {
+
+    private static final int EXPIRY_YEAR = LocalDate.now().getYear() + 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private HashService hashService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User admin;
+    private User owner;
+    private Card activeCard;
+    private Card blockedCard;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        admin = saveUser(Role.ROLE_ADMIN);
+        owner = saveUser(Role.ROLE_USER);
+        activeCard = saveCard(CardStatus.ACTIVE);
+        blockedCard = saveCard(CardStatus.BLOCKED);
+    }
+
+    @Test
+    void getCardsByStatus_shouldIssueOneStatement() throws Exception {
+        assertStatements(1, get("/card/{status}/{page}", "ACTIVE", 1).with(user(owner)), status().isOk());
+    }
+
+    @Test
+    void getCardsByStatusRepeated_shouldBeServedFromUserCache() throws Exception {
+        assertStatements(1, get("/card/{status}/{page}", "ACTIVE", 1).with(user(owner)), status().isOk());
+        assertStatements(0, get("/card/{status}/{page}", "ACTIVE", 1).with(user(owner)), status().isOk());
+    }
+
+    @Test
+    void getCardsAfterTransfer_shouldReloadInvalidatedUserCache() throws Exception {
+        Card target = saveCard(CardStatus.ACTIVE);
+        assertStatements(1, get("/card").with(user(owner)), status().isOk());
+        mockMvc.perform(post("/transfer").with(user(owner))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(MoneyTransferDto.builder()
+                        .fromCardId(activeCard.getId())
+                        .toCardId(target.getId())
+                        .amount(BigDecimal.TEN)
+                        .build())))
+                .andExpect(status().isOk());
+
+        assertStatements(1, get("/card").with(user(owner)), status().isOk());
+    }
+
+    @Test
+    void getCards_shouldIssueOneStatement() throws Exception {
+        assertStatements(1, get("/card").with(user(owner)), status().isOk());
+    }
+
+    @Test
+    void transfer_shouldLockOnceAndWriteBalancesAndLedger() throws Exception {
+        Card target = saveCard(CardStatus.ACTIVE);
+        MoneyTransferDto transfer = MoneyTransferDto.builder()
+                .fromCardId(activeCard.getId())
+                .toCardId(target.getId())
+                .amount(BigDecimal.TEN)
+                .build();
+
+        assertStatements(3, post("/transfer").with(user(owner))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transfer)), status().isOk());
+    }
+
+    @Test
+    void transferWithIdempotencyKey_shouldStoreOnceAndReplayWithoutStatements() throws Exception {
+        Card target = saveCard(CardStatus.ACTIVE);
+        String body = objectMapper.writeValueAsString(MoneyTransferDto.builder()
+                .fromCardId(activeCard.getId())
+                .toCardId(target.getId())
+                .amount(BigDecimal.TEN)
+                .build());
+        String key = UUID.randomUUID().toString();
+
+        assertStatements(5, post("/transfer").with(user(owner))
+                .header(UserController.IDEMPOTENCY_KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body), status().isOk());
+        assertStatements(0, post("/transfer").with(user(owner))
+                .header(UserController.IDEMPOTENCY_KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body), status().isOk());
+        assertEquals(0, BigDecimal.valueOf(90).compareTo(cardRepository.findById(activeCard.getId()).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void transferBatch_shouldBatchUpdatesAndLedgerInserts() throws Exception {
+        Card target = saveCard(CardStatus.ACTIVE);
+        List<MoneyTransferDto> transfers = IntStream.range(0, 20)
+                .mapToObj(i -> MoneyTransferDto.builder()
+                        .fromCardId(activeCard.getId())
+                        .toCardId(target.getId())
+                        .amount(BigDecimal.ONE)
+                        .build())
+                .toList();
+
+        assertStatements(3, post("/transfer/batch").with(user(owner))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transfers)), status().isOk());
+    }
+
+    @Test
+    void statement_shouldIssueFourStatements() throws Exception {
+        assertStatements(4, get("/card/{cardId}/statement", activeCard.getId())
+                .param("from", Instant.now().minusSeconds(3600).toString())
+                .with(user(owner)), status().isOk());
+    }
+
+    @Test
+    void createTicket_shouldIssueOneStatement() throws Exception {
+        assertStatements(1, post("/ticket").with(user(owner))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TicketDto(activeCard.getId()))), status().isAccepted());
+    }
+
+    @Test
+    void adminCards_shouldIssueOneStatement() throws Exception {
+        assertStatements(1, get("/admin/card").with(user(admin)), status().isOk());
+    }
+
+    @Test
+    void adminTickets_shouldIssueOneStatement() throws Exception {
+        assertStatements(1, get("/admin/ticket").with(user(admin)), status().isOk());
+    }
+
+    @Test
+    void adminTicketsFiltered_shouldIssueOneStatementRegardlessOfTicketCount() throws Exception {
+        IntStream.range(0, 5).forEach(i -> ticketRepository.save(Ticket.builder()
+                .id(UUID.randomUUID())
+                .user(owner)
+                .card(saveCard(CardStatus.ACTIVE))
+                .build()));
+
+        assertStatements(1, get("/admin/ticket").param("userId", owner.getId().toString()).param("size", "3")
+                .with(user(admin)), status().isOk());
+    }
+
+    @Test
+    void adminUserCards_shouldIssueOneStatement() throws Exception {
+        assertStatements(1, get("/admin/card/user/{userID}", owner.getId()).with(user(admin)), status().isOk());
+    }
+
+    @Test
+    void createCard_shouldIssueFiveStatements() throws Exception {
+        CreateCardRequest request = new CreateCardRequest();
+        request.setNumber(randomNumber());
+        request.setOwner(owner.getUsername());
+        request.setExpiryMonth(12);
+        request.setExpiryYear(EXPIRY_YEAR);
+        request.setStatus(CardStatus.ACTIVE);
+        request.setBalance(BigDecimal.ONE);
+        request.setUserId(owner.getId());
+
+        assertStatements(5, post("/admin/card").with(user(admin))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)), status().isOk());
+    }
+
+    @Test
+    void bulkIssue_shouldBatchCardAndSnapshotInserts() throws Exception {
+        List<CreateCardRequest> requests = IntStream.range(0, 20)
+                .mapToObj(i -> CreateCardRequest.builder()
+                        .number(randomNumber())
+                        .owner(owner.getUsername())
+                        .expiryMonth(12)
+                        .expiryYear(EXPIRY_YEAR)
+                        .status(CardStatus.ACTIVE)
+                        .balance(BigDecimal.ONE)
+                        .userId(owner.getId())
+                        .build())
+                .toList();
+
+        assertStatements(5, post("/admin/card/bulk").with(user(admin))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)), status().isOk());
+    }
+
+    @Test
+    void blockCard_shouldIssueThreeStatements() throws Exception {
+        assertStatements(3, patch("/admin/card/{cardId}/block", activeCard.getId()).with(user(admin)), status().isOk());
+    }
+
+    @Test
+    void activateCard_shouldIssueTwoStatements() throws Exception {
+        assertStatements(2, patch("/admin/card/{cardId}/activate", blockedCard.getId()).with(user(admin)), status().isOk());
+    }
+
+    @Test
+    void deleteCard_shouldResolveOwnerAndDelete() throws Exception {
+        assertStatements(2, delete("/admin/card/{cardId}", blockedCard.getId()).with(user(admin)), status().isNoContent());
+    }
+
+    @Test
+    void deleteMissingCard_shouldIssueOneStatement() throws Exception {
+        assertStatements(1, delete("/admin/card/{cardId}", UUID.randomUUID()).with(user(admin)), status().isBadRequest());
+    }
+
+    @Test
+    void refreshToken_shouldLookUpRevokeAndInsertOnce() throws Exception {
+        String refreshToken = refreshTokenService.issue(owner);
+
+        assertStatements(3, post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequest(refreshToken))), status().isOk());
+    }
+
+    private void assertStatements(long expected, MockHttpServletRequestBuilder request, ResultMatcher result) throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(request).andExpect(result);
+
+        assertEquals(expected, statistics.getPrepareStatementCount());
+    }
+
+    private User saveUser(Role role) {
+        String name = "stmt-" + UUID.randomUUID();
+        return userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("password")
+                .role(role)
+                .build());
+    }
+
+    private Card saveCard(CardStatus status) {
+        String number = randomNumber();
+        return cardRepository.save(Card.builder()
+                .id(UUID.randomUUID())
+                .number(number)
+                .owner(owner.getUsername())
+                .expiryMonth(12)
+                .expiryYear(EXPIRY_YEAR)
+                .status(status)
+                .balance(BigDecimal.valueOf(100))
+                .user(owner)
+                .numberHash(hashService.hmacSha256(number))
+                .build());
+    }
+
+    private static String randomNumber() {
+        return String.valueOf(4_000_000_000_000_000L + (long) (Math.random() * 999_999_999_999_999L));
+    }
+}
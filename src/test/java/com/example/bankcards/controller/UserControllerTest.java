@@ -2,12 +2,22 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.TestSecurityConfig;
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardSliceDto;
 import com.example.bankcards.dto.MoneyTransferDto;
+import com.example.bankcards.dto.StatementDto;
 import com.example.bankcards.dto.TicketDto;
+import com.example.bankcards.dto.TicketRequestDto;
+import com.example.bankcards.dto.TransferResultDto;
 import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.TicketRequestStatus;
+import com.example.bankcards.exception.StatementPeriodException;
+import com.example.bankcards.service.CardListingService;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.IdempotencyService;
+import com.example.bankcards.service.LedgerService;
 import com.example.bankcards.service.TicketService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -15,13 +25,16 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -47,11 +60,26 @@ class UserControllerTest {
     @MockitoBean
     private TicketService ticketService;
 
+    @MockitoBean
+    private LedgerService ledgerService;
+
+    @MockitoBean
+    private CardListingService cardListingService;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     private static final UUID USER_CARD_ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
 
+    @BeforeEach
+    void setUp() {
+        when(idempotencyService.execute(any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<ResponseEntity<String>>>getArgument(3).get());
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void getCards_shouldReturnUserCardsByStatusAndPage() throws Exception {
@@ -65,7 +93,8 @@ class UserControllerTest {
                         .build()
         );
 
-        when(cardService.getUsersCard(0, CardStatus.ACTIVE)).thenReturn(cards);
+        when(cardListingService.findUserCards(CardStatus.ACTIVE, 0, null))
+                .thenReturn(CardSliceDto.builder().cards(cards).build());
 
         mockMvc.perform(get("/card/{status}/{page}", "ACTIVE", 0))
                 .andExpect(status().isOk())
@@ -74,7 +103,68 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[0].status").value("ACTIVE"))
                 .andExpect(jsonPath("$[0].balance").value(1000.50));
 
-        verify(cardService, times(1)).getUsersCard(0, CardStatus.ACTIVE);
+        verify(cardListingService, times(1)).findUserCards(CardStatus.ACTIVE, 0, null);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getAllCards_withoutStatus_shouldReturnSlice() throws Exception {
+        CardSliceDto slice = CardSliceDto.builder()
+                .cards(List.of(CardDto.builder().id(USER_CARD_ID).status(CardStatus.BLOCKED).build()))
+                .page(1)
+                .size(10)
+                .hasNext(true)
+                .build();
+        when(cardListingService.findUserCards(null, 1, 10)).thenReturn(slice);
+
+        mockMvc.perform(get("/card").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cards[0].status").value("BLOCKED"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        verify(cardListingService, times(1)).findUserCards(null, 1, 10);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void transferBatch_shouldReturnPerItemResults() throws Exception {
+        MoneyTransferDto transferDto = MoneyTransferDto.builder()
+                .fromCardId(USER_CARD_ID)
+                .toCardId(UUID.randomUUID())
+                .amount(BigDecimal.valueOf(500.00))
+                .build();
+        List<MoneyTransferDto> transfers = List.of(transferDto);
+        when(cardService.moneyTransferBatch(transfers)).thenReturn(List.of(TransferResultDto.builder()
+                .index(0)
+                .fromCardId(USER_CARD_ID)
+                .success(false)
+                .error("Insufficient funds")
+                .build()));
+
+        mockMvc.perform(post("/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transfers)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(false))
+                .andExpect(jsonPath("$[0].error").value("Insufficient funds"));
+
+        verify(cardService, times(1)).moneyTransferBatch(transfers);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void transferBatch_withInvalidItem_shouldReturnBadRequest() throws Exception {
+        List<MoneyTransferDto> transfers = List.of(MoneyTransferDto.builder()
+                .fromCardId(USER_CARD_ID)
+                .amount(BigDecimal.valueOf(-1))
+                .build());
+
+        mockMvc.perform(post("/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transfers)))
+                .andExpect(status().isBadRequest());
+
+        verify(cardService, never()).moneyTransferBatch(any());
     }
 
     @Test
@@ -97,36 +187,130 @@ class UserControllerTest {
         verify(cardService, times(1)).moneyTransfer(transferDto);
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    void transfer_withIdempotencyKey_shouldPassKeyToIdempotencyService() throws Exception {
+        MoneyTransferDto transferDto = MoneyTransferDto.builder()
+                .fromCardId(USER_CARD_ID)
+                .toCardId(UUID.randomUUID())
+                .amount(BigDecimal.TEN)
+                .build();
+
+        mockMvc.perform(post("/transfer")
+                        .header(UserController.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferDto)))
+                .andExpect(status().isOk());
+
+        verify(idempotencyService, times(1)).execute(eq("transfer"), eq("retry-1"), eq(transferDto), any());
+    }
+
 
 
     @Test
     @WithMockUser(roles = "USER")
-    void createTicket_shouldCreateSupportTicketAndReturnSuccessMessage() throws Exception {
+    void createTicket_shouldAcceptSupportTicketAndReturnItsId() throws Exception {
         TicketDto ticketDto = TicketDto.builder()
                 .cardId(USER_CARD_ID)
                 .build();
+        UUID ticketId = UUID.randomUUID();
 
-        doNothing().when(ticketService).createTicket(any(TicketDto.class));
+        when(ticketService.submitTicket(any(TicketDto.class))).thenReturn(TicketRequestDto.builder()
+                .ticketId(ticketId)
+                .cardId(USER_CARD_ID)
+                .status(TicketRequestStatus.PENDING)
+                .build());
 
         mockMvc.perform(post("/ticket")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(ticketDto)))
-                .andExpect(status().isOk())
-                .andExpect(content().string("Заявка успешно создана"));
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/ticket/" + ticketId))
+                .andExpect(jsonPath("$.ticketId").value(ticketId.toString()))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        verify(ticketService, times(1)).submitTicket(ticketDto);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void createTicket_withoutCardId_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/ticket")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(ticketService);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getTicketRequest_shouldReturnProcessingStatus() throws Exception {
+        UUID ticketId = UUID.randomUUID();
+        when(ticketService.getTicketRequest(ticketId)).thenReturn(TicketRequestDto.builder()
+                .ticketId(ticketId)
+                .cardId(USER_CARD_ID)
+                .status(TicketRequestStatus.REJECTED)
+                .error("Invalid card status")
+                .build());
 
-        verify(ticketService, times(1)).createTicket(ticketDto);
+        mockMvc.perform(get("/ticket/{ticketId}", ticketId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("REJECTED"))
+                .andExpect(jsonPath("$.error").value("Invalid card status"));
     }
 
 
     @Test
     @WithMockUser(roles = "USER")
     void getCards_withBlockedStatus_shouldWork() throws Exception {
-        when(cardService.getUsersCard(1, CardStatus.BLOCKED)).thenReturn(List.of());
+        when(cardListingService.findUserCards(CardStatus.BLOCKED, 1, null))
+                .thenReturn(CardSliceDto.builder().cards(List.of()).build());
 
         mockMvc.perform(get("/card/BLOCKED/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(0));
 
-        verify(cardService).getUsersCard(1, CardStatus.BLOCKED);
+        verify(cardListingService).findUserCards(CardStatus.BLOCKED, 1, null);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getStatement_shouldReturnStatementForPeriod() throws Exception {
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+        Instant to = Instant.parse("2026-02-01T00:00:00Z");
+        StatementDto statement = StatementDto.builder()
+                .cardId(USER_CARD_ID)
+                .from(from)
+                .to(to)
+                .openingBalance(BigDecimal.valueOf(100))
+                .closingBalance(BigDecimal.valueOf(50))
+                .entries(List.of())
+                .build();
+        when(ledgerService.getStatement(USER_CARD_ID, from, to)).thenReturn(statement);
+
+        mockMvc.perform(get("/card/{cardId}/statement", USER_CARD_ID)
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardId").value(USER_CARD_ID.toString()))
+                .andExpect(jsonPath("$.closingBalance").value(50));
+
+        verify(ledgerService).getStatement(USER_CARD_ID, from, to);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getStatement_withInvertedPeriod_shouldReturnBadRequest() throws Exception {
+        Instant from = Instant.parse("2026-02-01T00:00:00Z");
+        Instant to = Instant.parse("2026-01-01T00:00:00Z");
+        when(ledgerService.getStatement(USER_CARD_ID, from, to))
+                .thenThrow(new StatementPeriodException("Statement period start must not be after its end"));
+
+        mockMvc.perform(get("/card/{cardId}/statement", USER_CARD_ID)
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.from").value("Statement period start must not be after its end"));
     }
-}
\ No newline at end of file
+}
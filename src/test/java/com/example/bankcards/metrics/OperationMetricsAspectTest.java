@@ -0,0 +1,129 @@
+package com.example.bankcards.metrics;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.HashService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperationMetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OperationMetricsAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new OperationMetricsAspect(meterRegistry);
+    }
+
+    @Test
+    void timeCrypto_onSuccess_shouldRecordSuccessOutcome() {
+        HashService hashService = proxy(new HashService("secret", false));
+
+        hashService.hmacSha256("4111111111111111");
+        hashService.hmacSha256("4111111111111111");
+
+        Timer timer = meterRegistry.get(OperationMetricsAspect.CRYPTO_TIMER)
+                .tag("operation", "HashService.hmacSha256")
+                .tag("outcome", "success")
+                .tag("exception", "none")
+                .timer();
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void timeCrypto_lookupHashes_shouldRecordSelfInvokedHmacs() {
+        HashService hashService = proxy(new HashService("secret", true));
+
+        hashService.lookupHashes("4111111111111111");
+
+        assertEquals(1, meterRegistry.get(OperationMetricsAspect.CRYPTO_TIMER)
+                .tag("operation", "HashService.lookupHashes")
+                .tag("outcome", "success")
+                .timer()
+                .count());
+    }
+
+    @Test
+    void timeCrypto_onBusinessException_shouldRecordClientErrorWithExceptionType() {
+        HashService hashService = proxy(new HashService("secret", false) {
+            @Override
+            public String hmacSha256(String number) {
+                throw new CardNotFoundException("Card with this number was not found");
+            }
+        });
+
+        assertThrows(CardNotFoundException.class, () -> hashService.hmacSha256("4111111111111111"));
+
+        assertEquals(1, meterRegistry.get(OperationMetricsAspect.CRYPTO_TIMER)
+                .tag("outcome", "client_error")
+                .tag("exception", "CardNotFoundException")
+                .timer()
+                .count());
+    }
+
+    @Test
+    void timeCrypto_onUnexpectedException_shouldRecordServerError() {
+        HashService hashService = proxy(new HashService("secret", false) {
+            @Override
+            public String hmacSha256(String number) {
+                throw new IllegalStateException("broken");
+            }
+        });
+
+        assertThrows(IllegalStateException.class, () -> hashService.hmacSha256("4111111111111111"));
+
+        assertEquals(1, meterRegistry.get(OperationMetricsAspect.CRYPTO_TIMER)
+                .tag("outcome", "server_error")
+                .tag("exception", "IllegalStateException")
+                .timer()
+                .count());
+    }
+
+    @Test
+    void timeOperation_shouldNotTimeCardMappers() {
+        CardService cardService = proxy(new CardService(null, null, null, null, null, null, null, null, null));
+        Card card = Card.builder()
+                .id(UUID.randomUUID())
+                .last4("1111")
+                .owner("IVAN IVANOV")
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.TEN)
+                .build();
+
+        cardService.toCardDto(card);
+
+        assertNull(meterRegistry.find(OperationMetricsAspect.OPERATION_TIMER).timer());
+    }
+
+    @Test
+    void timeOperation_shouldTimeListedCardOperations() {
+        CardService cardService = proxy(new CardService(null, null, null, null, null, null, null, null, null));
+
+        assertThrows(NullPointerException.class, () -> cardService.blockCard(UUID.randomUUID()));
+
+        assertEquals(1, meterRegistry.get(OperationMetricsAspect.OPERATION_TIMER)
+                .tag("operation", "CardService.blockCard")
+                .tag("outcome", "server_error")
+                .timer()
+                .count());
+    }
+
+    private <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.bankcards.metrics;
+
+import com.example.bankcards.dto.SignInRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.ticket.intake.worker-enabled=false")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("h2")
+class PrometheusScrapeTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.security.metrics-scrape.username}")
+    private String scrapeUsername;
+
+    @Value("${app.security.metrics-scrape.password}")
+    private String scrapePassword;
+
+    @Test
+    void prometheus_withoutCredentials_shouldReturnUnauthorized() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheus_withWrongPassword_shouldReturnUnauthorized() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic(scrapeUsername, "wrong-" + scrapePassword)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheus_withScrapeCredentials_shouldExposeOperationPoolAndHibernateMetrics() throws Exception {
+        SignInRequest request = new SignInRequest();
+        request.setUsername("unknown_user");
+        request.setPassword("my_1secret1_password");
+        mockMvc.perform(post("/auth/sign-in")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic(scrapeUsername, scrapePassword)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "bank_operation_seconds_count{application=\"bank_rest\",exception=\"BadCredentialsException\",operation=\"AuthenticationService.signIn\",outcome=\"client_error\"}")))
+                .andExpect(content().string(containsString("bank_crypto_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("hibernate_statements_total")));
+    }
+}
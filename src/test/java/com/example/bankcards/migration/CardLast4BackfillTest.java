@@ -0,0 +1,103 @@
+package com.example.bankcards.migration;
+
+import com.example.bankcards.util.CryptoUtil;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardLast4BackfillTest {
+
+    private static final String KEY = "12345678901234567890123456789012";
+
+    private Connection connection;
+    private CryptoUtil crypto;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:backfill;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table cards (id uuid primary key, number varchar(255) not null, last4 varchar(4))");
+        }
+        crypto = new CryptoUtil(KEY.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        System.clearProperty(CardLast4Backfill.ENCRYPTION_KEY_PROPERTY);
+        connection.close();
+    }
+
+    @Test
+    void execute_shouldFillLast4ForAllRowsAcrossBatches() throws Exception {
+        Map<UUID, String> expected = new HashMap<>();
+        try (PreparedStatement insert = connection.prepareStatement("insert into cards (id, number) values (?, ?)")) {
+            for (int i = 0; i < 7; i++) {
+                UUID id = UUID.randomUUID();
+                String number = String.format("4000%012d", 1234 + i);
+                insert.setObject(1, id);
+                insert.setString(2, crypto.encrypt(number));
+                insert.executeUpdate();
+                expected.put(id, number.substring(12));
+            }
+        }
+        Database database = DatabaseFactory.getInstance()
+                .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+        CardLast4Backfill backfill = new CardLast4Backfill();
+        System.setProperty(CardLast4Backfill.ENCRYPTION_KEY_PROPERTY, KEY);
+        backfill.setBatchSize(3);
+
+        backfill.execute(database);
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select id, last4 from cards")) {
+            int count = 0;
+            while (rows.next()) {
+                assertEquals(expected.get(rows.getObject("id", UUID.class)), rows.getString("last4"));
+                count++;
+            }
+            assertEquals(7, count);
+        }
+        assertEquals("Backfilled last4 for 7 cards", backfill.getConfirmationMessage());
+    }
+
+    @Test
+    void execute_withoutKey_shouldFailWhenRowsNeedBackfill() throws Exception {
+        try (PreparedStatement insert = connection.prepareStatement("insert into cards (id, number) values (?, ?)")) {
+            insert.setObject(1, UUID.randomUUID());
+            insert.setString(2, crypto.encrypt("4000000000001234"));
+            insert.executeUpdate();
+        }
+        Database database = DatabaseFactory.getInstance()
+                .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+
+        assertThrows(CustomChangeException.class, () -> new CardLast4Backfill().execute(database));
+    }
+
+    @Test
+    void execute_withoutKeyAndNothingToBackfill_shouldSucceed() throws Exception {
+        Database database = DatabaseFactory.getInstance()
+                .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+        CardLast4Backfill backfill = new CardLast4Backfill();
+
+        backfill.execute(database);
+
+        assertEquals("Backfilled last4 for 0 cards", backfill.getConfirmationMessage());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.bankcards.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class QueryPlanTest {
+
+    private static final String ID = "cast('00000000-0000-0000-0000-000000000001' as uuid)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrations_shouldCreateSecondaryIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select lower(index_name) from information_schema.indexes where lower(table_name) in ('cards', 'tickets')",
+                String.class);
+
+        assertTrue(indexes.containsAll(List.of(
+                "idx_cards_user_id_status", "idx_tickets_card_id", "idx_tickets_user_id", "idx_cards_expiry_due")), indexes.toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "select * from cards where user_id = " + ID,
+            "select * from cards where user_id = " + ID + " and status = 'ACTIVE' order by id",
+            "select count(*) from cards where user_id = " + ID,
+            "select * from cards where id = " + ID + " and user_id = " + ID,
+            "select count(*) from tickets where card_id = " + ID,
+            "delete from tickets where card_id = " + ID,
+            "select * from tickets where user_id = " + ID
+    })
+    void hotQueries_shouldUseIndex(String sql) {
+        String plan = jdbcTemplate.queryForObject("explain " + sql, String.class);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+}
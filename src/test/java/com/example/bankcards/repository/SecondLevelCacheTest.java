@@ -0,0 +1,192 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.service.CardExpiryService;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.HashService;
+import com.example.bankcards.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.ticket.intake.worker-enabled=false",
+        "app.security.revocation.sync-delay=1h",
+        "app.card.number-hash.rehash-initial-delay=1h"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardExpiryService cardExpiryService;
+
+    @Autowired
+    private HashService hashService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String name = "cache-" + UUID.randomUUID();
+        user = userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build());
+    }
+
+    @Test
+    void findByUsername_shouldResolveFromNaturalIdCacheWithoutStatements() {
+        userRepository.findByUsername(user.getUsername()).orElseThrow();
+        statistics.clear();
+
+        User found = userRepository.findByUsername(user.getUsername()).orElseThrow();
+
+        assertEquals(user.getId(), found.getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void findByUsername_withUnknownUsername_shouldReturnEmpty() {
+        assertTrue(userRepository.findByUsername("missing-" + UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void userServiceSave_shouldReplaceCachedUser() {
+        User cached = userRepository.findByUsername(user.getUsername()).orElseThrow();
+        cached.setEmail("changed-" + cached.getEmail());
+
+        userService.save(cached);
+
+        assertEquals(cached.getEmail(), userRepository.findByUsername(user.getUsername()).orElseThrow().getEmail());
+    }
+
+    @Test
+    void updatePassword_shouldEvictCachedUser() {
+        User cached = userRepository.findByUsername(user.getUsername()).orElseThrow();
+
+        userService.updatePassword(cached, "upgraded");
+
+        assertEquals("upgraded", userRepository.findByUsername(user.getUsername()).orElseThrow().getPassword());
+    }
+
+    @Test
+    void findById_shouldNotCacheCards() {
+        Card card = saveCard(LocalDate.now().getYear() + 3);
+
+        cardRepository.findById(card.getId()).orElseThrow();
+
+        assertFalse(entityManagerFactory.getCache().contains(Card.class, card.getId()));
+    }
+
+    @Test
+    void blockCard_afterBalanceChangedElsewhere_shouldKeepBalance() {
+        Card card = saveCard(LocalDate.now().getYear() + 3);
+        cardRepository.findById(card.getId()).orElseThrow();
+        jdbcTemplate.update("update cards set balance = 100 where id = ?", card.getId());
+
+        cardService.blockCard(card.getId());
+
+        Card blocked = cardRepository.findById(card.getId()).orElseThrow();
+        assertEquals(CardStatus.BLOCKED, blocked.getStatus());
+        assertEquals(0, new BigDecimal("100").compareTo(blocked.getBalance()));
+    }
+
+    @Test
+    void expireDueCards_shouldKeepCachedUsers() {
+        Card card = saveCard(LocalDate.now().getYear() - 1);
+        userRepository.findByUsername(user.getUsername()).orElseThrow();
+
+        cardExpiryService.expireDueCards();
+        statistics.clear();
+
+        userRepository.findByUsername(user.getUsername()).orElseThrow();
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(CardStatus.EXPIRED, cardRepository.findById(card.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void hibernateCacheEndpoint_shouldReportRegionHits() throws Exception {
+        User admin = userRepository.save(User.builder()
+                .username("cache-admin-" + UUID.randomUUID())
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password")
+                .role(Role.ROLE_ADMIN)
+                .build());
+        userRepository.findByUsername(user.getUsername()).orElseThrow();
+        userRepository.findByUsername(user.getUsername()).orElseThrow();
+
+        mockMvc.perform(get("/actuator/hibernatecache").with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statisticsEnabled").value(true))
+                .andExpect(jsonPath("$.regions['users'].hits").value(greaterThan(0)))
+                .andExpect(jsonPath("$.regions['users-by-username'].hits").value(greaterThan(0)));
+    }
+
+    private Card saveCard(int expiryYear) {
+        String number = String.format("4000%012d", ThreadLocalRandom.current().nextLong(1_000_000_000_000L));
+        return cardRepository.save(Card.builder()
+                .id(UUID.randomUUID())
+                .number(number)
+                .owner("IVAN IVANOV")
+                .expiryMonth(12)
+                .expiryYear(expiryYear)
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.ZERO)
+                .user(user)
+                .numberHash(hashService.hmacSha256(number))
+                .build());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.service.TicketIntakeQueue;
+import com.example.bankcards.service.TicketService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TicketIntakeWorkerTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final String FAILED_MESSAGE = "Ticket request could not be processed";
+
+    @Mock
+    private TicketService ticketService;
+
+    private TicketIntakeQueue ticketIntakeQueue;
+    private TicketIntakeWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        ticketIntakeQueue = new TicketIntakeQueue(new SimpleMeterRegistry(), 100);
+        worker = new TicketIntakeWorker(ticketIntakeQueue, ticketService, true, 10, Duration.ofMillis(20),
+                Duration.ofMinutes(1), MAX_ATTEMPTS, FAILED_MESSAGE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.stop();
+    }
+
+    @Test
+    void drain_withPoisonRequest_shouldProcessOthersAndRecordFailedAttempt() {
+        UUID poison = UUID.randomUUID();
+        UUID healthy = UUID.randomUUID();
+        when(ticketService.processBatch(anyCollection())).thenAnswer(invocation -> {
+            if (invocation.<List<UUID>>getArgument(0).contains(poison)) {
+                throw new IllegalStateException("broken request");
+            }
+            return 1;
+        });
+        ticketIntakeQueue.offer(poison);
+        ticketIntakeQueue.offer(healthy);
+
+        worker.start();
+
+        verify(ticketService, timeout(5000)).processBatch(List.of(healthy));
+        verify(ticketService, timeout(5000)).recordFailedAttempt(poison, MAX_ATTEMPTS, FAILED_MESSAGE);
+        verify(ticketService, never()).recordFailedAttempt(healthy, MAX_ATTEMPTS, FAILED_MESSAGE);
+    }
+
+    @Test
+    void requeueStaleRequests_withRequestInFlight_shouldNotQueueItAgain() throws Exception {
+        UUID requestId = UUID.randomUUID();
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(ticketService.processBatch(anyCollection())).thenAnswer(invocation -> {
+            processing.countDown();
+            release.await();
+            return 1;
+        });
+        when(ticketService.findStaleRequestIds(Duration.ofMinutes(1), 10)).thenReturn(List.of(requestId));
+        ticketIntakeQueue.offer(requestId);
+        worker.start();
+        processing.await();
+
+        worker.requeueStaleRequests();
+        release.countDown();
+
+        verify(ticketService, after(200).times(1)).processBatch(anyCollection());
+    }
+}
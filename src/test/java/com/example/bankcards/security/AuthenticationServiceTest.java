@@ -0,0 +1,134 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.dto.JwtAuthenticationResponse;
+import com.example.bankcards.dto.RefreshTokenRequest;
+import com.example.bankcards.dto.SignInRequest;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.service.UserService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticationServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private PasswordVerifier passwordVerifier;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @InjectMocks
+    private AuthenticationService authenticationService;
+
+    private User user;
+    private SignInRequest request;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .username("john_doe")
+                .email("john@example.com")
+                .password("$2a$10$hash")
+                .role(Role.ROLE_USER)
+                .build();
+        request = new SignInRequest();
+        request.setUsername("john_doe");
+        request.setPassword("password");
+    }
+
+    @Test
+    void signIn_shouldLookUpUserOnceAndIssueToken() {
+        when(userService.findByUsername("john_doe")).thenReturn(Optional.of(user));
+        when(passwordVerifier.verifyAndUpgrade(user, "password")).thenReturn(Optional.empty());
+        when(jwtService.generateToken(user)).thenReturn("jwt");
+        when(refreshTokenService.issue(user)).thenReturn("refresh");
+
+        JwtAuthenticationResponse response = authenticationService.signIn(request);
+
+        assertEquals("jwt", response.getToken());
+        assertEquals("refresh", response.getRefreshToken());
+        verify(userService, times(1)).findByUsername("john_doe");
+        verify(userService, never()).updatePassword(any(), any());
+    }
+
+    @Test
+    void signIn_whenCostChanged_shouldStoreUpgradedHash() {
+        when(userService.findByUsername("john_doe")).thenReturn(Optional.of(user));
+        when(passwordVerifier.verifyAndUpgrade(user, "password")).thenReturn(Optional.of("$2a$12$upgraded"));
+
+        authenticationService.signIn(request);
+
+        verify(userService).updatePassword(user, "$2a$12$upgraded");
+    }
+
+    @Test
+    void signIn_withBadCredentials_shouldNotIssueToken() {
+        when(userService.findByUsername("john_doe")).thenReturn(Optional.empty());
+        when(passwordVerifier.verifyAndUpgrade(null, "password")).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThrows(BadCredentialsException.class, () -> authenticationService.signIn(request));
+
+        verifyNoInteractions(jwtService, refreshTokenService);
+    }
+
+    @Test
+    void refresh_shouldRotateWithoutPasswordCheck() {
+        when(refreshTokenService.rotate("refresh")).thenReturn(new RefreshTokenService.Rotation(user, "next"));
+        when(jwtService.generateToken(user)).thenReturn("jwt");
+
+        JwtAuthenticationResponse response = authenticationService.refresh(new RefreshTokenRequest("refresh"));
+
+        assertEquals("jwt", response.getToken());
+        assertEquals("next", response.getRefreshToken());
+        verifyNoInteractions(passwordVerifier, userService);
+    }
+
+    @Test
+    void logout_shouldRevokeRefreshAndAccessTokens() {
+        UUID tokenId = UUID.randomUUID();
+        Date expiration = Date.from(Instant.now().plusSeconds(60).truncatedTo(ChronoUnit.SECONDS));
+        when(jwtService.parseClaims("jwt")).thenReturn(Jwts.claims().id(tokenId.toString()).expiration(expiration).build());
+
+        authenticationService.logout(new RefreshTokenRequest("refresh"), "jwt");
+
+        verify(refreshTokenService).revoke("refresh");
+        verify(tokenRevocationService).revoke(tokenId, expiration.toInstant());
+    }
+
+    @Test
+    void logout_withInvalidAccessToken_shouldStillRevokeRefreshToken() {
+        when(jwtService.parseClaims("bad")).thenThrow(new MalformedJwtException("bad"));
+
+        authenticationService.logout(new RefreshTokenRequest("refresh"), "bad");
+
+        verify(refreshTokenService).revoke("refresh");
+        verifyNoInteractions(tokenRevocationService);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "token";
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private User user;
+    private Claims claims;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("testuser")
+                .email("test@example.com")
+                .role(Role.ROLE_USER)
+                .build();
+        claims = Jwts.claims().id(UUID.randomUUID().toString()).subject(user.getUsername()).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_inDatabaseMode_shouldLoadPrincipalOncePerCacheEntry() throws Exception {
+        JwtAuthenticationFilter filter = filter("database");
+        when(jwtService.parseClaims(TOKEN)).thenReturn(claims);
+        when(jwtService.isTokenValid(claims, user)).thenReturn(true);
+        when(userService.userDetailsService()).thenReturn(userDetailsService);
+        when(userDetailsService.loadUserByUsername(user.getUsername())).thenReturn(user);
+
+        filter.doFilter(request(), new MockHttpServletResponse(), filterChain);
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request(), new MockHttpServletResponse(), filterChain);
+
+        assertSame(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(userDetailsService, times(1)).loadUserByUsername(user.getUsername());
+        verify(jwtService, times(2)).parseClaims(TOKEN);
+        verify(filterChain, times(2)).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_inTokenMode_shouldBuildPrincipalFromClaims() throws Exception {
+        JwtAuthenticationFilter filter = filter("token");
+        when(jwtService.parseClaims(TOKEN)).thenReturn(claims);
+        when(jwtService.extractPrincipal(claims)).thenReturn(user);
+        when(jwtService.isTokenValid(claims, user)).thenReturn(true);
+
+        filter.doFilter(request(), new MockHttpServletResponse(), filterChain);
+
+        assertSame(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void doFilter_withInvalidToken_shouldContinueUnauthenticated() throws Exception {
+        JwtAuthenticationFilter filter = filter("database");
+        when(jwtService.parseClaims(TOKEN)).thenThrow(new SignatureException("bad signature"));
+
+        filter.doFilter(request(), new MockHttpServletResponse(), filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(any(), any());
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void doFilter_withRevokedToken_shouldContinueUnauthenticated() throws Exception {
+        JwtAuthenticationFilter filter = filter("database");
+        when(jwtService.parseClaims(TOKEN)).thenReturn(claims);
+        when(tokenRevocationService.isRevoked(UUID.fromString(claims.getId()))).thenReturn(true);
+
+        filter.doFilter(request(), new MockHttpServletResponse(), filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(any(), any());
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void doFilter_withTokenWithoutId_shouldContinueUnauthenticated() throws Exception {
+        JwtAuthenticationFilter filter = filter("database");
+        when(jwtService.parseClaims(TOKEN)).thenReturn(Jwts.claims().subject(user.getUsername()).build());
+
+        filter.doFilter(request(), new MockHttpServletResponse(), filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userService, tokenRevocationService);
+    }
+
+    @Test
+    void doFilter_withoutBearerHeader_shouldSkipAuthentication() throws Exception {
+        JwtAuthenticationFilter filter = filter("database");
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(jwtService, userService);
+    }
+
+    private JwtAuthenticationFilter filter(String principalSource) {
+        return new JwtAuthenticationFilter(jwtService, userService,
+                new PrincipalCache(100, Duration.ofMinutes(5)), tokenRevocationService, principalSource);
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(JwtAuthenticationFilter.HEADER_NAME, JwtAuthenticationFilter.BEARER_PREFIX + TOKEN);
+        return request;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SIGNING_KEY = "53A73E5F1C4E0A2D3B5F2D784E6A1B423D6F247D1F6E5C3A596D635A75327855";
+
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SIGNING_KEY, Duration.ofMinutes(15));
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("testuser")
+                .email("test@example.com")
+                .role(Role.ROLE_ADMIN)
+                .build();
+    }
+
+    @Test
+    void parseClaims_shouldReturnClaimsOfGeneratedToken() {
+        Claims claims = jwtService.parseClaims(jwtService.generateToken(user));
+
+        assertEquals("testuser", claims.getSubject());
+        assertTrue(jwtService.isTokenValid(claims, user));
+    }
+
+    @Test
+    void extractPrincipal_shouldRebuildUserFromClaims() {
+        User principal = jwtService.extractPrincipal(jwtService.parseClaims(jwtService.generateToken(user)));
+
+        assertEquals(user.getId(), principal.getId());
+        assertEquals(user.getUsername(), principal.getUsername());
+        assertEquals(Role.ROLE_ADMIN, principal.getRole());
+    }
+
+    @Test
+    void parseClaims_withTamperedToken_shouldThrow() {
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.parseClaims(tampered));
+    }
+
+    @Test
+    void isTokenValid_forAnotherUser_shouldReturnFalse() {
+        Claims claims = jwtService.parseClaims(jwtService.generateToken(user));
+        User other = User.builder().username("another").build();
+
+        assertFalse(jwtService.isTokenValid(claims, other));
+    }
+
+    @Test
+    void generateToken_shouldCarryUniqueIdAndShortExpiry() {
+        Claims first = jwtService.parseClaims(jwtService.generateToken(user));
+        Claims second = jwtService.parseClaims(jwtService.generateToken(user));
+
+        assertNotNull(first.getId());
+        assertNotEquals(first.getId(), second.getId());
+        long ttlMillis = first.getExpiration().getTime() - first.getIssuedAt().getTime();
+        assertTrue(ttlMillis <= Duration.ofMinutes(15).toMillis() + 1000);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.bankcards.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsScrapeAuthenticationProviderTest {
+
+    private final MetricsScrapeAuthenticationProvider provider =
+            new MetricsScrapeAuthenticationProvider("prometheus", "scrape-secret", "METRICS_SCRAPE");
+
+    @Test
+    void authenticate_withMatchingCredentials_shouldGrantScrapeRole() {
+        Authentication result = provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("prometheus", "scrape-secret"));
+
+        assertTrue(result.isAuthenticated());
+        assertEquals("prometheus", result.getName());
+        assertNull(result.getCredentials());
+        assertEquals("ROLE_METRICS_SCRAPE", result.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .findFirst()
+                .orElseThrow());
+    }
+
+    @Test
+    void authenticate_withWrongPassword_shouldThrow() {
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("prometheus", "scrape-secret-")));
+    }
+
+    @Test
+    void authenticate_withWrongUsername_shouldThrow() {
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("admin", "scrape-secret")));
+    }
+
+    @Test
+    void supports_shouldAcceptOnlyUsernamePasswordTokens() {
+        assertTrue(provider.supports(UsernamePasswordAuthenticationToken.class));
+        assertFalse(provider.supports(TestingAuthenticationToken.class));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.TooManySignInAttemptsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordVerifierTest {
+
+    private static final int STRENGTH = 4;
+    private static final String PASSWORD = "secret-password";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(STRENGTH);
+    private PasswordVerifier passwordVerifier;
+
+    @AfterEach
+    void tearDown() {
+        if (passwordVerifier != null) {
+            passwordVerifier.destroy();
+        }
+    }
+
+    @Test
+    void verifyAndUpgrade_withCurrentCost_shouldNotRehash() {
+        passwordVerifier = verifier(encoder, 2, 10);
+
+        assertEquals(Optional.empty(), passwordVerifier.verifyAndUpgrade(user(encoder.encode(PASSWORD)), PASSWORD));
+    }
+
+    @Test
+    void verifyAndUpgrade_withChangedCost_shouldReturnHashWithConfiguredCost() {
+        passwordVerifier = verifier(encoder, 2, 10);
+        String oldHash = new BCryptPasswordEncoder(STRENGTH + 1).encode(PASSWORD);
+
+        String upgraded = passwordVerifier.verifyAndUpgrade(user(oldHash), PASSWORD).orElseThrow();
+
+        assertTrue(upgraded.startsWith("$2a$04$"), upgraded);
+        assertTrue(encoder.matches(PASSWORD, upgraded));
+    }
+
+    @Test
+    void verifyAndUpgrade_withWrongPasswordOrUnknownUser_shouldThrowBadCredentials() {
+        passwordVerifier = verifier(encoder, 2, 10);
+
+        assertThrows(BadCredentialsException.class,
+                () -> passwordVerifier.verifyAndUpgrade(user(encoder.encode(PASSWORD)), "wrong"));
+        assertThrows(BadCredentialsException.class, () -> passwordVerifier.verifyAndUpgrade(null, PASSWORD));
+    }
+
+    @Test
+    void encode_whenWorkersAndQueueAreBusy_shouldRejectWithRetryAfter() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder slowEncoder = mock(PasswordEncoder.class);
+        when(slowEncoder.encode(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+        passwordVerifier = verifier(slowEncoder, 1, 1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> passwordVerifier.encode("first"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> passwordVerifier.encode("queued"));
+            awaitQueued();
+
+            TooManySignInAttemptsException thrown = assertThrows(TooManySignInAttemptsException.class,
+                    () -> passwordVerifier.encode("rejected"));
+
+            assertEquals(Duration.ofSeconds(2), thrown.getRetryAfter());
+            assertEquals(1, meterRegistry.counter("bank.auth.password.rejected").count());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+        }
+    }
+
+    @Test
+    void needsRehash_shouldCompareCostAndRejectNonBcryptHashes() {
+        passwordVerifier = verifier(encoder, 1, 1);
+
+        assertFalse(passwordVerifier.needsRehash("$2a$04$abcdefghijklmnopqrstuu"));
+        assertTrue(passwordVerifier.needsRehash("$2b$12$abcdefghijklmnopqrstuu"));
+        assertTrue(passwordVerifier.needsRehash("plain"));
+    }
+
+    private void awaitQueued() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("bank.auth.password.queue").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private PasswordVerifier verifier(PasswordEncoder passwordEncoder, int threads, int queueCapacity) {
+        return new PasswordVerifier(passwordEncoder, meterRegistry, STRENGTH, threads, queueCapacity,
+                Duration.ofSeconds(2), "Bad credentials", "Too many sign-ins");
+    }
+
+    private static User user(String passwordHash) {
+        return User.builder()
+                .username("john_doe")
+                .email("john@example.com")
+                .password(passwordHash)
+                .role(Role.ROLE_USER)
+                .build();
+    }
+}
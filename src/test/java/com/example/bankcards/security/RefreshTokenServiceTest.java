@@ -0,0 +1,115 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.RefreshToken;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.RefreshTokenException;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String name = "refresh-" + UUID.randomUUID();
+        user = userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build());
+    }
+
+    @Test
+    void issue_shouldStoreOnlyHashOfToken() {
+        String token = refreshTokenService.issue(user);
+
+        RefreshToken stored = storedToken();
+        assertNotEquals(token, stored.getTokenHash());
+        assertEquals(64, stored.getTokenHash().length());
+    }
+
+    @Test
+    void rotate_shouldReturnOwnerAndNewToken() {
+        String token = refreshTokenService.issue(user);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(token);
+
+        assertEquals(user.getId(), rotation.user().getId());
+        assertEquals(user.getUsername(), rotation.user().getUsername());
+        assertNotEquals(token, rotation.refreshToken());
+        assertDoesNotThrow(() -> refreshTokenService.rotate(rotation.refreshToken()));
+    }
+
+    @Test
+    void rotate_withReusedToken_shouldRevokeWholeFamily() {
+        String token = refreshTokenService.issue(user);
+        String rotated = refreshTokenService.rotate(token).refreshToken();
+        String otherSession = refreshTokenService.issue(user);
+
+        assertThrows(RefreshTokenException.class, () -> refreshTokenService.rotate(token));
+
+        assertThrows(RefreshTokenException.class, () -> refreshTokenService.rotate(rotated));
+        assertThrows(RefreshTokenException.class, () -> refreshTokenService.rotate(otherSession));
+    }
+
+    @Test
+    void rotate_withUnknownToken_shouldThrow() {
+        assertThrows(RefreshTokenException.class, () -> refreshTokenService.rotate("unknown"));
+    }
+
+    @Test
+    void rotate_withExpiredToken_shouldThrow() {
+        String token = refreshTokenService.issue(user);
+        RefreshToken stored = storedToken();
+        refreshTokenRepository.delete(stored);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .tokenHash(stored.getTokenHash())
+                .createdAt(Instant.now().minusSeconds(120))
+                .expiresAt(Instant.now().minusSeconds(60))
+                .build());
+
+        assertThrows(RefreshTokenException.class, () -> refreshTokenService.rotate(token));
+    }
+
+    @Test
+    void revoke_shouldInvalidateToken() {
+        String token = refreshTokenService.issue(user);
+
+        assertTrue(refreshTokenService.revoke(token));
+
+        assertThrows(RefreshTokenException.class, () -> refreshTokenService.rotate(token));
+    }
+
+    private RefreshToken storedToken() {
+        return refreshTokenRepository.findAll().stream()
+                .filter(refreshToken -> refreshToken.getUser().getId().equals(user.getId()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
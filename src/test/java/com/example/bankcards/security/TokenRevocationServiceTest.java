@@ -0,0 +1,158 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.RevokedToken;
+import com.example.bankcards.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository repository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void constructor_shouldNotTouchDatabase() {
+        new TokenRevocationService(repository, meterRegistry, 1000, 0.001, Duration.ofSeconds(5));
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void isRevoked_beforeFirstRebuild_shouldCheckDatabase() {
+        TokenRevocationService service = new TokenRevocationService(repository, meterRegistry, 1000, 0.001, Duration.ofSeconds(5));
+        UUID tokenId = UUID.randomUUID();
+        when(repository.existsById(tokenId)).thenReturn(true);
+
+        assertTrue(service.isRevoked(tokenId));
+        service.sync();
+        verify(repository, never()).findActiveIdsRevokedSince(any(), any());
+    }
+
+    @Test
+    void isRevoked_forUnknownToken_shouldNotTouchDatabase() {
+        TokenRevocationService service = service();
+
+        assertFalse(service.isRevoked(UUID.randomUUID()));
+
+        verify(repository, never()).existsById(any());
+        assertEquals(0, meterRegistry.counter("bank.auth.revocation.db-checks").count());
+    }
+
+    @Test
+    void isRevoked_forTokenLoadedAtStartup_shouldConfirmInDatabase() {
+        UUID tokenId = UUID.randomUUID();
+        when(repository.findActiveIdsRevokedSince(any(), any())).thenReturn(List.of(tokenId));
+        when(repository.existsById(tokenId)).thenReturn(true);
+
+        assertTrue(service().isRevoked(tokenId));
+        assertEquals(1, meterRegistry.counter("bank.auth.revocation.db-checks").count());
+    }
+
+    @Test
+    void revoke_shouldStoreTokenAndRejectItImmediately() {
+        TokenRevocationService service = service();
+        UUID tokenId = UUID.randomUUID();
+        when(repository.existsById(tokenId)).thenReturn(true);
+
+        service.revoke(tokenId, Instant.now().plusSeconds(60));
+
+        verify(repository).saveAndFlush(any(RevokedToken.class));
+        assertTrue(service.isRevoked(tokenId));
+    }
+
+    @Test
+    void revoke_twice_shouldIgnoreDuplicate() {
+        TokenRevocationService service = service();
+        UUID tokenId = UUID.randomUUID();
+        when(repository.saveAndFlush(any(RevokedToken.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertDoesNotThrow(() -> service.revoke(tokenId, Instant.now().plusSeconds(60)));
+    }
+
+    @Test
+    void sync_shouldPickUpTokensRevokedByOtherInstances() {
+        TokenRevocationService service = service();
+        UUID tokenId = UUID.randomUUID();
+        when(repository.findActiveIdsRevokedSince(any(), any())).thenReturn(List.of(tokenId));
+        when(repository.existsById(tokenId)).thenReturn(true);
+
+        service.sync();
+
+        assertTrue(service.isRevoked(tokenId));
+    }
+
+    @Test
+    void removeExpired_shouldRebuildFilterWithoutDeletedTokens() {
+        UUID tokenId = UUID.randomUUID();
+        when(repository.findActiveIdsRevokedSince(any(), any())).thenReturn(List.of(tokenId), List.of());
+        TokenRevocationService service = service();
+        when(repository.deleteExpiredBefore(any())).thenReturn(1);
+
+        assertEquals(1, service.removeExpired());
+        assertFalse(service.isRevoked(tokenId));
+        verify(repository, never()).existsById(any());
+    }
+
+    @Test
+    void removeExpired_insideTransaction_shouldRebuildOnlyAfterCommit() {
+        UUID tokenId = UUID.randomUUID();
+        when(repository.findActiveIdsRevokedSince(any(), any())).thenReturn(List.of(tokenId), List.of());
+        TokenRevocationService service = service();
+        when(repository.existsById(tokenId)).thenReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.removeExpired();
+
+        assertTrue(service.isRevoked(tokenId));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertFalse(service.isRevoked(tokenId));
+    }
+
+    @Test
+    void rebuild_shouldKeepTokensRevokedWhileItRuns() {
+        TokenRevocationService service = service();
+        UUID tokenId = UUID.randomUUID();
+        when(repository.findActiveIdsRevokedSince(any(), any())).thenAnswer(invocation -> {
+            service.revoke(tokenId, Instant.now().plusSeconds(60));
+            return List.of();
+        });
+        when(repository.existsById(tokenId)).thenReturn(true);
+
+        service.rebuild();
+
+        assertTrue(service.isRevoked(tokenId));
+    }
+
+    private TokenRevocationService service() {
+        TokenRevocationService service = new TokenRevocationService(repository, meterRegistry, 1000, 0.001, Duration.ofSeconds(5));
+        service.rebuild();
+        return service;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.card.expiry-sweep.chunk-size=2")
+@ActiveProfiles("h2")
+class CardExpiryServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private CardExpiryService cardExpiryService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HashService hashService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username("expiry-" + UUID.randomUUID())
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build());
+    }
+
+    @Test
+    void expireDueCards_shouldExpireOnlyCardsPastTheirMonthInChunks() {
+        LocalDate lastMonth = TODAY.minusMonths(1);
+        List<Card> due = List.of(
+                saveCard(CardStatus.ACTIVE, lastMonth.getYear(), lastMonth.getMonthValue()),
+                saveCard(CardStatus.ACTIVE, TODAY.getYear() - 1, 12),
+                saveCard(CardStatus.BLOCKED, TODAY.getYear() - 2, 1),
+                saveCard(CardStatus.ACTIVE, TODAY.getYear() - 3, 6),
+                saveCard(CardStatus.BLOCKED, TODAY.getYear() - 1, 1));
+        Card currentMonth = saveCard(CardStatus.ACTIVE, TODAY.getYear(), TODAY.getMonthValue());
+        Card future = saveCard(CardStatus.BLOCKED, TODAY.getYear() + 1, 1);
+        double expiredBefore = meterRegistry.counter("bank.cards.expired").count();
+
+        int expired = cardExpiryService.expireDueCards();
+
+        assertEquals(due.size(), expired);
+        due.forEach(card -> assertEquals(CardStatus.EXPIRED, statusOf(card)));
+        assertEquals(CardStatus.ACTIVE, statusOf(currentMonth));
+        assertEquals(CardStatus.BLOCKED, statusOf(future));
+        assertEquals(expiredBefore + due.size(), meterRegistry.counter("bank.cards.expired").count());
+        assertEquals(0, cardExpiryService.expireDueCards());
+    }
+
+    private CardStatus statusOf(Card card) {
+        return cardRepository.findById(card.getId()).orElseThrow().getStatus();
+    }
+
+    private Card saveCard(CardStatus status, int expiryYear, int expiryMonth) {
+        String number = String.format("4000%012d", ThreadLocalRandom.current().nextLong(1_000_000_000_000L));
+        return cardRepository.save(Card.builder()
+                .id(UUID.randomUUID())
+                .number(number)
+                .numberHash(hashService.hmacSha256(number))
+                .owner("EXPIRY TEST")
+                .expiryMonth(expiryMonth)
+                .expiryYear(expiryYear)
+                .status(status)
+                .balance(BigDecimal.ZERO)
+                .user(user)
+                .build());
+    }
+}
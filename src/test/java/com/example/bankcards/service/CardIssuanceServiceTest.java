@@ -0,0 +1,193 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardIssuanceErrorDto;
+import com.example.bankcards.dto.CardIssuanceResultDto;
+import com.example.bankcards.dto.CreateCardRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.CardException;
+import com.example.bankcards.repository.CardBalanceSnapshotRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = "app.card.issuance.chunk-size=2")
+@ActiveProfiles("h2")
+class CardIssuanceServiceTest {
+
+    private static final int EXPIRY_YEAR = LocalDate.now().getYear() + 3;
+
+    @Autowired
+    private CardIssuanceService cardIssuanceService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardBalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private HashService hashService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoSpyBean
+    private LedgerService ledgerService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username("issue-" + UUID.randomUUID())
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build());
+    }
+
+    @Test
+    void issueFromJson_shouldCreateValidCardsAndReportRejectedOnes() throws Exception {
+        String existingNumber = randomNumber();
+        cardRepository.save(Card.builder()
+                .id(UUID.randomUUID())
+                .number(existingNumber)
+                .numberHash(hashService.hmacSha256(existingNumber))
+                .owner("IVAN IVANOV")
+                .expiryMonth(12)
+                .expiryYear(EXPIRY_YEAR)
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.ZERO)
+                .user(user)
+                .build());
+        String repeatedNumber = randomNumber();
+        long snapshotsBefore = snapshotRepository.count();
+
+        List<CreateCardRequest> requests = List.of(
+                request(randomNumber(), "IVAN IVANOV", user.getId()),
+                request(repeatedNumber, "IVAN IVANOV", user.getId()),
+                request(repeatedNumber, "IVAN IVANOV", user.getId()),
+                request(existingNumber, "IVAN IVANOV", user.getId()),
+                request(randomNumber(), "PETR PETROV", user.getId()),
+                request(randomNumber(), "IVAN IVANOV", UUID.randomUUID()),
+                request("123", "IVAN IVANOV", user.getId()));
+
+        CardIssuanceResultDto result = cardIssuanceService.issueFromJson(json(requests));
+
+        assertEquals(7, result.getReceived());
+        assertEquals(2, result.getCreated());
+        assertEquals(5, result.getRejected());
+        assertEquals(List.of(2, 3, 4, 5, 6), result.getErrors().stream().map(CardIssuanceErrorDto::getIndex).toList());
+        assertEquals(3, cardRepository.findByUserId(user.getId()).size());
+        assertEquals(snapshotsBefore + 2, snapshotRepository.count());
+    }
+
+    @Test
+    void issueFromCsv_shouldSkipHeaderAndRejectMalformedLines() throws Exception {
+        String csv = """
+                number,owner,expiryMonth,expiryYear,status,balance,userId
+                %s,IVAN IVANOV,12,%d,ACTIVE,10.00,%s
+                %s,IVAN IVANOV,twelve,%d,ACTIVE,10.00,%s
+                not,enough,columns
+                """.formatted(randomNumber(), EXPIRY_YEAR, user.getId(), randomNumber(), EXPIRY_YEAR, user.getId());
+
+        CardIssuanceResultDto result = cardIssuanceService.issueFromCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, result.getReceived());
+        assertEquals(1, result.getCreated());
+        assertEquals(List.of(1, 2), result.getErrors().stream().map(CardIssuanceErrorDto::getIndex).toList());
+        assertEquals(0, BigDecimal.TEN.compareTo(cardRepository.findByUserId(user.getId()).get(0).getBalance()));
+    }
+
+    @Test
+    void issueFromJson_withMalformedBody_shouldThrowCardException() {
+        ByteArrayInputStream body = new ByteArrayInputStream("[{\"number\":".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(CardException.class, () -> cardIssuanceService.issueFromJson(body));
+    }
+
+    @Test
+    void issueFromJson_withBodyBrokenAfterFirstChunk_shouldReportCommittedCards() throws Exception {
+        String valid = objectMapper.writeValueAsString(List.of(
+                request(randomNumber(), "IVAN IVANOV", user.getId()),
+                request(randomNumber(), "IVAN IVANOV", user.getId()),
+                request(randomNumber(), "IVAN IVANOV", user.getId())));
+        String broken = valid.substring(0, valid.length() - 1) + ",{\"number\":";
+
+        CardIssuanceResultDto result = cardIssuanceService.issueFromJson(
+                new ByteArrayInputStream(broken.getBytes(StandardCharsets.UTF_8)));
+
+        assertFalse(result.isCompleted());
+        assertEquals("Malformed card issuance request", result.getError());
+        assertEquals(3, result.getReceived());
+        assertEquals(3, result.getCreated());
+        assertEquals(3, cardRepository.findByUserId(user.getId()).size());
+    }
+
+    @Test
+    void issueFromJson_whenChunkFails_shouldReportItsCardsAndContinue() throws Exception {
+        doThrow(new DataIntegrityViolationException("number_hash race"))
+                .doCallRealMethod()
+                .when(ledgerService).openCards(anyList());
+        List<CreateCardRequest> requests = List.of(
+                request(randomNumber(), "IVAN IVANOV", user.getId()),
+                request(randomNumber(), "IVAN IVANOV", user.getId()),
+                request(randomNumber(), "IVAN IVANOV", user.getId()));
+
+        CardIssuanceResultDto result = cardIssuanceService.issueFromJson(json(requests));
+
+        assertTrue(result.isCompleted());
+        assertEquals(3, result.getReceived());
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getRejected());
+        assertEquals(List.of(0, 1), result.getErrors().stream().map(CardIssuanceErrorDto::getIndex).toList());
+        assertEquals("Card was not saved because its chunk failed, it can be resubmitted", result.getErrors().get(0).getError());
+        assertEquals(1, cardRepository.findByUserId(user.getId()).size());
+    }
+
+    private ByteArrayInputStream json(List<CreateCardRequest> requests) throws Exception {
+        return new ByteArrayInputStream(objectMapper.writeValueAsBytes(requests));
+    }
+
+    private static CreateCardRequest request(String number, String owner, UUID userId) {
+        return CreateCardRequest.builder()
+                .number(number)
+                .owner(owner)
+                .expiryMonth(12)
+                .expiryYear(EXPIRY_YEAR)
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.ONE)
+                .userId(userId)
+                .build();
+    }
+
+    private static String randomNumber() {
+        return String.format("4000%012d", ThreadLocalRandom.current().nextLong(1_000_000_000_000L));
+    }
+}
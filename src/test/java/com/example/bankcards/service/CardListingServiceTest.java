@@ -0,0 +1,155 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardPageDto;
+import com.example.bankcards.dto.CardSliceDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardListingServiceTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardService cardService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CardListingService cardListingService;
+
+    private Card first;
+    private Card second;
+
+    @BeforeEach
+    void setUp() {
+        UserCardCache userCardCache = new UserCardCache(new SimpleMeterRegistry(), true, 100, 4, Duration.ofMinutes(1));
+        cardListingService = new CardListingService(cardRepository, cardService, userService, entityManager,
+                userCardCache, transactionManager, new ObjectMapper(), 2, 3, 2, 5);
+        first = Card.builder().id(UUID.randomUUID()).build();
+        second = Card.builder().id(UUID.randomUUID()).build();
+    }
+
+    @Test
+    void findCardsPage_withoutCursor_shouldReturnFirstPageWithNextCursor() {
+        when(cardRepository.findAllByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(first, second));
+        when(cardService.toCardDto(any(Card.class))).thenReturn(new CardDto());
+
+        CardPageDto result = cardListingService.findCardsPage(null, null);
+
+        assertEquals(2, result.getCards().size());
+        assertEquals(second.getId(), result.getNextCursor());
+    }
+
+    @Test
+    void findCardsPage_withCursor_shouldContinueAfterIt() {
+        UUID after = UUID.randomUUID();
+        when(cardRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(3))).thenReturn(List.of(first));
+        when(cardService.toCardDto(first)).thenReturn(new CardDto());
+
+        CardPageDto result = cardListingService.findCardsPage(after, 10);
+
+        assertEquals(1, result.getCards().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void findUserCards_withStatus_shouldReturnSliceWithoutCount() {
+        User user = User.builder().id(UUID.randomUUID()).build();
+        PageRequest pageable = PageRequest.of(0, 2, Sort.by("id"));
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findByUserIdAndStatus(user.getId(), CardStatus.ACTIVE, pageable))
+                .thenReturn(new SliceImpl<>(List.of(first, second), pageable, true));
+        when(cardService.toCardDto(any(Card.class))).thenReturn(new CardDto());
+
+        CardSliceDto result = cardListingService.findUserCards(CardStatus.ACTIVE, 1, null);
+
+        assertEquals(2, result.getCards().size());
+        assertEquals(1, result.getPage());
+        assertEquals(2, result.getSize());
+        assertTrue(result.isHasNext());
+    }
+
+    @Test
+    void findUserCards_withoutStatus_shouldReturnAllStatusesAndCapSize() {
+        User user = User.builder().id(UUID.randomUUID()).build();
+        PageRequest pageable = PageRequest.of(1, 5, Sort.by("id"));
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findByUserId(user.getId(), pageable))
+                .thenReturn(new SliceImpl<>(List.of(first), pageable, false));
+        when(cardService.toCardDto(first)).thenReturn(new CardDto());
+
+        CardSliceDto result = cardListingService.findUserCards(null, 2, 100);
+
+        assertEquals(1, result.getCards().size());
+        assertEquals(5, result.getSize());
+        assertFalse(result.isHasNext());
+        verify(cardRepository, never()).findByUserIdAndStatus(any(), any(), any());
+    }
+
+    @Test
+    void findUserCards_repeated_shouldServeSecondCallFromCache() {
+        User user = User.builder().id(UUID.randomUUID()).build();
+        PageRequest pageable = PageRequest.of(0, 2, Sort.by("id"));
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findByUserIdAndStatus(user.getId(), CardStatus.ACTIVE, pageable))
+                .thenReturn(new SliceImpl<>(List.of(first), pageable, false));
+        when(cardService.toCardDto(first)).thenReturn(new CardDto());
+
+        CardSliceDto loaded = cardListingService.findUserCards(CardStatus.ACTIVE, 1, null);
+        CardSliceDto cached = cardListingService.findUserCards(CardStatus.ACTIVE, 1, 2);
+
+        assertSame(loaded, cached);
+        verify(cardRepository, times(1)).findByUserIdAndStatus(any(), any(), any());
+    }
+
+    @Test
+    void streamAllCards_shouldWriteOneLinePerCardAndDetachIt() {
+        when(cardRepository.streamAllOrderById()).thenReturn(Stream.of(first, second));
+        when(cardService.toCardDto(first)).thenReturn(CardDto.builder().owner("A").build());
+        when(cardService.toCardDto(second)).thenReturn(CardDto.builder().owner("B").build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        cardListingService.streamAllCards(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"owner\":\"A\""));
+        assertTrue(lines[1].contains("\"owner\":\"B\""));
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.MoneyTransferDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.CardAlreadyExistsException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = "app.card.number-hash.rehash-chunk-size=2")
+@ActiveProfiles("h2")
+class CardNumberRehashServiceTest {
+
+    @Autowired
+    private CardNumberRehashService cardNumberRehashService;
+
+    @Autowired
+    private CardValidatorService cardValidatorService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoSpyBean
+    private HashService hashService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username("rehash-" + UUID.randomUUID())
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rehashAll_shouldMoveLegacyHashesToCurrentVersion() {
+        List<String> numbers = IntStream.range(0, 5).mapToObj(i -> randomNumber()).toList();
+        List<Card> cards = numbers.stream().map(number -> saveCard(number, hashService.legacyHmacSha256(number))).toList();
+
+        assertTrue(cardNumberRehashService.rehashAll().rehashed() >= cards.size());
+
+        for (int i = 0; i < cards.size(); i++) {
+            Card reloaded = cardRepository.findById(cards.get(i).getId()).orElseThrow();
+            assertEquals(hashService.hmacSha256(numbers.get(i)), reloaded.getNumberHash());
+        }
+        assertEquals(0, cardNumberRehashService.rehashAll().rehashed());
+    }
+
+    @Test
+    void rehashAll_withUndecryptableCard_shouldSkipItAndRehashTheRest() {
+        String brokenNumber = randomNumber();
+        Card broken = saveCard(brokenNumber, hashService.legacyHmacSha256(brokenNumber));
+        jdbcTemplate.update("update cards set number = 'not-a-ciphertext' where id = ?", broken.getId());
+        List<String> numbers = IntStream.range(0, 3).mapToObj(i -> randomNumber()).toList();
+        List<Card> cards = numbers.stream().map(number -> saveCard(number, hashService.legacyHmacSha256(number))).toList();
+        double failuresBefore = meterRegistry.get("bank.cards.number-hash.rehash-failures").counter().count();
+
+        try {
+            CardNumberRehashService.RehashResult result = cardNumberRehashService.rehashAll();
+
+            assertTrue(result.rehashed() >= cards.size());
+            assertEquals(1, result.failed());
+            assertEquals(1, result.remaining());
+            assertEquals(failuresBefore + 1, meterRegistry.get("bank.cards.number-hash.rehash-failures").counter().count());
+            assertEquals(1, meterRegistry.get("bank.cards.number-hash.legacy").gauge().value());
+            for (int i = 0; i < cards.size(); i++) {
+                assertEquals(hashService.hmacSha256(numbers.get(i)),
+                        cardRepository.findById(cards.get(i).getId()).orElseThrow().getNumberHash());
+            }
+        } finally {
+            cardRepository.deleteById(broken.getId());
+        }
+        assertEquals(0, cardNumberRehashService.rehashAll().remaining());
+    }
+
+    @Test
+    void rehashChunk_shouldKeepTransferCommittedBetweenReadAndWrite() {
+        String number = randomNumber();
+        Card from = saveCard(number, hashService.legacyHmacSha256(number), BigDecimal.valueOf(100));
+        String targetNumber = randomNumber();
+        Card to = saveCard(targetNumber, hashService.hmacSha256(targetNumber), BigDecimal.ZERO);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        TransactionTemplate concurrentTransaction = new TransactionTemplate(transactionManager);
+        concurrentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicBoolean transferred = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (transferred.compareAndSet(false, true)) {
+                concurrentTransaction.executeWithoutResult(status -> cardService.moneyTransfer(MoneyTransferDto.builder()
+                        .fromCardId(from.getId())
+                        .toCardId(to.getId())
+                        .amount(BigDecimal.TEN)
+                        .build()));
+            }
+            return invocation.callRealMethod();
+        }).when(hashService).hmacSha256(number);
+
+        cardNumberRehashService.rehashAll();
+
+        Card reloaded = cardRepository.findById(from.getId()).orElseThrow();
+        assertTrue(transferred.get());
+        assertEquals(0, BigDecimal.valueOf(90).compareTo(reloaded.getBalance()));
+        assertEquals(hashService.hmacSha256(number), reloaded.getNumberHash());
+        assertEquals(0, BigDecimal.TEN.compareTo(cardRepository.findById(to.getId()).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void ensureCardNotExistsByNumberHash_shouldFindCardsStillOnLegacyHash() {
+        String number = randomNumber();
+        saveCard(number, hashService.legacyHmacSha256(number));
+
+        assertThrows(CardAlreadyExistsException.class,
+                () -> cardValidatorService.ensureCardNotExistsByNumberHash(hashService.lookupHashes(number)));
+    }
+
+    private Card saveCard(String number, String numberHash) {
+        return saveCard(number, numberHash, BigDecimal.ZERO);
+    }
+
+    private Card saveCard(String number, String numberHash, BigDecimal balance) {
+        return cardRepository.save(Card.builder()
+                .id(UUID.randomUUID())
+                .number(number)
+                .numberHash(numberHash)
+                .owner("REHASH TEST")
+                .expiryMonth(12)
+                .expiryYear(LocalDate.now().getYear() + 3)
+                .status(CardStatus.ACTIVE)
+                .balance(balance)
+                .user(user)
+                .build());
+    }
+
+    private static String randomNumber() {
+        return String.format("4000%012d", ThreadLocalRandom.current().nextLong(1_000_000_000_000L));
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.MoneyTransferDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.NotEnoughBalanceException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class CardServiceConcurrencyTest {
+
+    private static final int CARDS = 6;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS = 2000;
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1000);
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HashService hashService;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    private User user;
+    private List<UUID> cardIds;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username("stress-" + UUID.randomUUID())
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build());
+
+        cardIds = new ArrayList<>();
+        int expiryYear = LocalDate.now().getYear() + 3;
+        for (int i = 0; i < CARDS; i++) {
+            String number = String.format("4000%012d", ThreadLocalRandom.current().nextLong(1_000_000_000_000L));
+            Card card = cardRepository.save(Card.builder()
+                    .id(UUID.randomUUID())
+                    .number(number)
+                    .numberHash(hashService.hmacSha256(number))
+                    .owner("STRESS TEST")
+                    .expiryMonth(12)
+                    .expiryYear(expiryYear)
+                    .status(CardStatus.ACTIVE)
+                    .balance(INITIAL_BALANCE)
+                    .user(user)
+                    .build());
+            cardIds.add(card.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        cardRepository.deleteAllById(cardIds);
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void moneyTransfer_underParallelLoad_shouldConserveMoney() throws InterruptedException {
+        Map<UUID, BigDecimal> expected = new ConcurrentHashMap<>();
+        cardIds.forEach(id -> expected.put(id, INITIAL_BALANCE));
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < TRANSFERS; i++) {
+            executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                UUID from = cardIds.get(random.nextInt(CARDS));
+                UUID to = cardIds.get(random.nextInt(CARDS));
+                while (to.equals(from)) {
+                    to = cardIds.get(random.nextInt(CARDS));
+                }
+                BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 300));
+
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(user.getUsername(), null, List.of()));
+                try {
+                    cardService.moneyTransfer(new MoneyTransferDto(from, to, amount));
+                    expected.merge(from, amount.negate(), BigDecimal::add);
+                    expected.merge(to, amount, BigDecimal::add);
+                    applied.incrementAndGet();
+                } catch (NotEnoughBalanceException e) {
+                    rejected.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(TRANSFERS, applied.get() + rejected.get());
+        assertTrue(applied.get() > 0);
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (Card card : cardRepository.findAllById(cardIds)) {
+            assertTrue(card.getBalance().signum() >= 0);
+            assertEquals(0, expected.get(card.getId()).compareTo(card.getBalance()));
+            BigDecimal ledgerDelta = ledgerEntryRepository.sumAmountAfter(card.getId(), Instant.EPOCH);
+            assertEquals(0, INITIAL_BALANCE.add(ledgerDelta).compareTo(card.getBalance()));
+            total = total.add(card.getBalance());
+        }
+        assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(CARDS)).compareTo(total));
+    }
+}
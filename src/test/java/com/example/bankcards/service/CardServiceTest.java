@@ -3,9 +3,11 @@ package com.example.bankcards.service;
 import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.dto.CreateCardRequest;
 import com.example.bankcards.dto.MoneyTransferDto;
+import com.example.bankcards.dto.TransferResultDto;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.NotEnoughBalanceException;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TicketRepository;
 import com.example.bankcards.repository.UserRepository;
@@ -16,14 +18,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -54,6 +53,12 @@ class CardServiceTest {
     @Mock
     private TicketRepository ticketRepository;
 
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private UserCardCache userCardCache;
+
     @InjectMocks
     private CardService cardService;
 
@@ -99,45 +104,55 @@ class CardServiceTest {
     }
 
     @Test
-    void findAllCards_shouldReturnListOfCardDtos() {
+    void findCardsByUser_shouldReturnListOfCardDtos() {
         List<Card> cards = List.of(card);
-        when(cardRepository.findAll()).thenReturn(cards);
+        when(cardRepository.findByUserId(userId)).thenReturn(cards);
 
-        List<CardDto> result = cardService.findAllCards();
+        List<CardDto> result = cardService.findCardsByUser(userId);
 
         assertEquals(1, result.size());
         assertEquals(cardId, result.get(0).getId());
-        assertEquals("**** **** **** 3456", result.get(0).getMaskedNumber());
+        verifyNoInteractions(userValidatorService);
     }
 
     @Test
-    void findCardsByUser_shouldReturnListOfCardDtos() {
-        doNothing().when(userValidatorService).validateUserExistsById(userId);
-        List<Card> cards = List.of(card);
-        when(cardRepository.findByUserId(userId)).thenReturn(cards);
+    void findCardsByUser_whenNoCards_shouldValidateUserExists() {
+        when(cardRepository.findByUserId(userId)).thenReturn(List.of());
 
         List<CardDto> result = cardService.findCardsByUser(userId);
 
-        assertEquals(1, result.size());
-        assertEquals(cardId, result.get(0).getId());
+        assertTrue(result.isEmpty());
+        verify(userValidatorService).validateUserExistsById(userId);
+    }
+
+    @Test
+    void deleteCard_shouldDeleteCardAndInvalidateOwnerCache() {
+        when(cardRepository.findUserIdById(cardId)).thenReturn(Optional.of(userId));
+        when(cardRepository.deleteCardById(cardId)).thenReturn(1);
+
+        cardService.deleteCard(cardId);
+
+        verify(cardValidatorService).ensureCardDeleted(1);
+        verify(userCardCache).invalidate(userId);
     }
 
     @Test
-    void deleteCard_shouldDeleteCard() {
-        doNothing().when(cardValidatorService).validateCardExists(cardId);
-        doNothing().when(cardRepository).deleteById(cardId);
+    void deleteCard_whenCardMissing_shouldSkipDelete() {
+        when(cardRepository.findUserIdById(cardId)).thenReturn(Optional.empty());
 
         cardService.deleteCard(cardId);
 
-        verify(cardRepository).deleteById(cardId);
+        verify(cardValidatorService).ensureCardDeleted(0);
+        verify(cardRepository, never()).deleteCardById(any());
+        verifyNoInteractions(userCardCache);
     }
 
     @Test
     void createCard_shouldSaveCard() {
         String rawNumber = createCardRequest.getNumber();
-        String hashed = "hashed-number";
+        List<String> hashed = List.of("v2:hashed-number", "hashed-number");
 
-        when(hashService.hmacSha256(rawNumber)).thenReturn(hashed);
+        when(hashService.lookupHashes(rawNumber)).thenReturn(hashed);
 
         doNothing().when(cardValidatorService)
                 .ensureCardNotExistsByNumberHash(hashed);
@@ -154,14 +169,18 @@ class CardServiceTest {
 
         cardService.createCard(createCardRequest);
 
-        verify(cardRepository).save(any(Card.class));
+        ArgumentCaptor<Card> captor = ArgumentCaptor.forClass(Card.class);
+        verify(cardRepository).save(captor.capture());
+        assertEquals("v2:hashed-number", captor.getValue().getNumberHash());
+        verify(ledgerService).openCard(any(Card.class));
+        verify(userCardCache).invalidate(userId);
     }
 
 
     @Test
     void findCardById_shouldReturnCard() {
-        doNothing().when(cardValidatorService).validateCardExists(cardId);
         when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
+        when(cardValidatorService.ensureCardFound(Optional.of(card))).thenReturn(card);
 
         Card result = cardService.findCardById(cardId);
 
@@ -170,25 +189,26 @@ class CardServiceTest {
 
     @Test
     void blockCard_shouldBlockCard() {
-        doNothing().when(cardValidatorService).validateCardExists(cardId);
-        when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
+        when(cardRepository.findLockedById(cardId)).thenReturn(Optional.of(card));
+        when(cardValidatorService.ensureCardFound(Optional.of(card))).thenReturn(card);
         doNothing().when(cardValidatorService).ensureCardStatusNotBlock(card);
-        doNothing().when(cardValidatorService).validateExpiryDate(card);
+        doNothing().when(cardValidatorService).ensureCardNotExpired(card);
         doNothing().when(ticketRepository).deleteByCard_Id(any(UUID.class));
 
         cardService.blockCard(cardId);
 
         assertEquals(CardStatus.BLOCKED, card.getStatus());
-        verify(cardRepository).findById(cardId);
+        verify(cardRepository).findLockedById(cardId);
+        verify(userCardCache).invalidate(userId);
     }
 
     @Test
     void activateCard_shouldActivateCard() {
         card.setStatus(CardStatus.BLOCKED);
-        doNothing().when(cardValidatorService).validateCardExists(cardId);
-        when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
+        when(cardRepository.findLockedById(cardId)).thenReturn(Optional.of(card));
+        when(cardValidatorService.ensureCardFound(Optional.of(card))).thenReturn(card);
         doNothing().when(cardValidatorService).ensureCardStatusNotActive(card);
-        doNothing().when(cardValidatorService).validateExpiryDate(card);
+        doNothing().when(cardValidatorService).ensureCardNotExpired(card);
 
         cardService.activateCard(cardId);
 
@@ -231,36 +251,53 @@ class CardServiceTest {
 
 
     @Test
-    void getUsersCard_shouldReturnPagedCards() {
-        int page = 1;
-        CardStatus status = CardStatus.ACTIVE;
-        Pageable pageable = PageRequest.of(page - 1, 2);
-        List<Card> cards = List.of(card);
-        Page<Card> cardPage = new PageImpl<>(cards);
+    void moneyTransfer_shouldTransferMoney() {
+        UUID toCardId = moneyTransferDto.getToCardId();
+        Card toCard = new Card();
+        toCard.setId(toCardId);
+        toCard.setBalance(BigDecimal.valueOf(500));
+
         when(userService.getCurrentUser()).thenReturn(user);
-        when(cardRepository.findByUserIdAndStatus(userId, status, pageable)).thenReturn(cardPage);
+        when(cardRepository.findAllForUpdate(List.of(cardId, toCardId), userId)).thenReturn(List.of(card, toCard));
+        doNothing().when(cardValidatorService).validateTransfer(card, toCard, moneyTransferDto.getAmount());
 
-        List<CardDto> result = cardService.getUsersCard(page, status);
+        cardService.moneyTransfer(moneyTransferDto);
 
-        assertEquals(1, result.size());
-        assertEquals(cardId, result.get(0).getId());
+        assertEquals(BigDecimal.valueOf(900), card.getBalance());
+        assertEquals(BigDecimal.valueOf(600), toCard.getBalance());
+        verify(ledgerService).recordTransfer(card, toCard, moneyTransferDto.getAmount());
+        verify(userCardCache).invalidate(userId);
     }
 
     @Test
-    void moneyTransfer_shouldTransferMoney() {
+    void moneyTransferBatch_shouldLockOnceAndReportEachTransfer() {
         UUID toCardId = moneyTransferDto.getToCardId();
         Card toCard = new Card();
         toCard.setId(toCardId);
         toCard.setBalance(BigDecimal.valueOf(500));
+        MoneyTransferDto rejected = MoneyTransferDto.builder()
+                .fromCardId(cardId)
+                .toCardId(toCardId)
+                .amount(BigDecimal.valueOf(5000))
+                .build();
+        List<MoneyTransferDto> transfers = List.of(moneyTransferDto, rejected);
 
         when(userService.getCurrentUser()).thenReturn(user);
-        when(cardRepository.findCardByIdAndUser_Id(cardId, userId)).thenReturn(card);
-        when(cardRepository.findCardByIdAndUser_Id(toCardId, userId)).thenReturn(toCard);
-        doNothing().when(cardValidatorService).validateTransfer(card, toCard, moneyTransferDto.getAmount());
+        when(cardRepository.findAllForUpdate(Set.of(cardId, toCardId), userId)).thenReturn(List.of(card, toCard));
+        lenient().doThrow(new NotEnoughBalanceException("Insufficient funds"))
+                .when(cardValidatorService).validateTransfer(card, toCard, rejected.getAmount());
 
-        cardService.moneyTransfer(moneyTransferDto);
+        List<TransferResultDto> results = cardService.moneyTransferBatch(transfers);
 
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(1, results.get(1).getIndex());
+        assertEquals("Insufficient funds", results.get(1).getError());
         assertEquals(BigDecimal.valueOf(900), card.getBalance());
         assertEquals(BigDecimal.valueOf(600), toCard.getBalance());
+        verify(cardValidatorService).ensureTransferBatchSize(2);
+        verify(cardRepository, times(1)).findAllForUpdate(any(), any());
+        verify(ledgerService).recordTransfers(List.of(moneyTransferDto));
     }
 }
\ No newline at end of file
@@ -12,10 +12,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +40,7 @@ class CardValidatorServiceTest {
     private String notEnoughBalanceExceptionMessage = "Not enough balance";
     private String wrongCardExpiryDate = "Card expired";
     private String cardStatusException = "Invalid card status";
+    private String transferBatchTooLargeMessage = "Too many transfers";
 
     @BeforeEach
     void setUp() {
@@ -46,24 +53,54 @@ class CardValidatorServiceTest {
                 cardEqualIdExceptionMessage,
                 notEnoughBalanceExceptionMessage,
                 wrongCardExpiryDate,
-                cardStatusException
+                cardStatusException,
+                transferBatchTooLargeMessage,
+                2,
+                Clock.fixed(Instant.parse("2025-11-15T12:00:00Z"), ZoneOffset.UTC)
         );
     }
 
     @Test
     void ensureCardNotExistsByNumber_whenCardDoesNotExist_shouldNotThrow() {
-        String numberHash = "1234567890123456";
-        when(cardRepository.existsCardByNumberHash(numberHash)).thenReturn(false);
+        List<String> numberHashes = List.of("v2:current", "legacy");
+        when(cardRepository.existsCardByNumberHashIn(numberHashes)).thenReturn(false);
 
-        assertDoesNotThrow(() -> cardValidatorService.ensureCardNotExistsByNumberHash(numberHash));
+        assertDoesNotThrow(() -> cardValidatorService.ensureCardNotExistsByNumberHash(numberHashes));
     }
 
     @Test
     void ensureCardNotExistsByNumber_whenCardExists_shouldThrowCardAlreadyExistsException() {
-        String numberHash = "1234567890123456";
-        when(cardRepository.existsCardByNumberHash(numberHash)).thenReturn(true);
+        List<String> numberHashes = List.of("v2:current", "legacy");
+        when(cardRepository.existsCardByNumberHashIn(numberHashes)).thenReturn(true);
 
-        assertThrows(CardAlreadyExistsException.class, () -> cardValidatorService.ensureCardNotExistsByNumberHash(numberHash));
+        assertThrows(CardAlreadyExistsException.class, () -> cardValidatorService.ensureCardNotExistsByNumberHash(numberHashes));
+    }
+
+    @Test
+    void ensureCardNotExistsByNumberHash_withKnownHashes_shouldCheckWithoutQuery() {
+        Set<String> existingHashes = Set.of("taken");
+
+        assertDoesNotThrow(() -> cardValidatorService.ensureCardNotExistsByNumberHash(List.of("free"), existingHashes));
+        assertThrows(CardAlreadyExistsException.class,
+                () -> cardValidatorService.ensureCardNotExistsByNumberHash(List.of("v2:free", "taken"), existingHashes));
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void validateCardOwner_whenOwnerDiffers_shouldThrowCardOwnerException() {
+        Card card = createCard();
+
+        assertDoesNotThrow(() -> cardValidatorService.validateCardOwner(card, null));
+        assertDoesNotThrow(() -> cardValidatorService.validateCardOwner(card, card.getOwner()));
+        assertThrows(CardOwnerException.class, () -> cardValidatorService.validateCardOwner(card, "SOMEONE ELSE"));
+    }
+
+    @Test
+    void validateCardBelongsToUser_whenAnotherUser_shouldThrowCardOwnerException() {
+        Card card = createCard();
+
+        assertDoesNotThrow(() -> cardValidatorService.validateCardBelongsToUser(card, card.getUser().getId()));
+        assertThrows(CardOwnerException.class, () -> cardValidatorService.validateCardBelongsToUser(card, UUID.randomUUID()));
     }
 
     @Test
@@ -83,25 +120,43 @@ class CardValidatorServiceTest {
     }
 
     @Test
-    void validateCardExistsById_whenCardExists_shouldNotThrow() {
-        UUID id = UUID.randomUUID();
-        when(cardRepository.existsCardById(id)).thenReturn(true);
+    void ensureCardFound_whenPresent_shouldReturnCard() {
+        Card card = createCard();
 
-        assertDoesNotThrow(() -> cardValidatorService.validateCardExists(id));
+        assertSame(card, cardValidatorService.ensureCardFound(Optional.of(card)));
     }
 
     @Test
-    void validateCardExistsById_whenCardDoesNotExist_shouldThrowCardNotFoundException() {
-        UUID id = UUID.randomUUID();
-        when(cardRepository.existsCardById(id)).thenReturn(false);
+    void ensureCardFound_whenEmpty_shouldThrowCardNotFoundException() {
+        assertThrows(CardNotFoundException.class, () -> cardValidatorService.ensureCardFound(Optional.empty()));
+    }
 
-        assertThrows(CardNotFoundException.class, () -> cardValidatorService.validateCardExists(id));
+    @Test
+    void ensureTransferBatchSize_whenWithinLimit_shouldNotThrow() {
+        assertDoesNotThrow(() -> cardValidatorService.ensureTransferBatchSize(2));
+    }
+
+    @Test
+    void ensureTransferBatchSize_whenOverLimit_shouldThrowCardException() {
+        CardException thrown = assertThrows(CardException.class, () -> cardValidatorService.ensureTransferBatchSize(3));
+
+        assertEquals(transferBatchTooLargeMessage, thrown.getMessage());
+    }
+
+    @Test
+    void ensureCardDeleted_whenRowDeleted_shouldNotThrow() {
+        assertDoesNotThrow(() -> cardValidatorService.ensureCardDeleted(1));
+    }
+
+    @Test
+    void ensureCardDeleted_whenNothingDeleted_shouldThrowCardNotFoundException() {
+        assertThrows(CardNotFoundException.class, () -> cardValidatorService.ensureCardDeleted(0));
     }
 
     @Test
     void validateCardMatchWithUser_whenNoCards_shouldNotThrow() {
         Card card = createCard();
-        when(cardRepository.existsByUser_Id(card.getUser().getId())).thenReturn(false);
+        when(cardRepository.findFirstByUser_Id(card.getUser().getId())).thenReturn(Optional.empty());
 
         assertDoesNotThrow(() -> cardValidatorService.validateCardMatchWithUser(card));
     }
@@ -109,10 +164,7 @@ class CardValidatorServiceTest {
     @Test
     void validateCardMatchWithUser_whenHasCardsAndOwnerMatches_shouldNotThrow() {
         Card card = createCard();
-        Card existingCard = createCard();
-        existingCard.setOwner(card.getOwner());
-        when(cardRepository.existsByUser_Id(card.getUser().getId())).thenReturn(true);
-        when(cardRepository.findFirstByUser_Id(card.getUser().getId())).thenReturn(existingCard);
+        when(cardRepository.findFirstByUser_Id(card.getUser().getId())).thenReturn(Optional.of(card::getOwner));
 
         assertDoesNotThrow(() -> cardValidatorService.validateCardMatchWithUser(card));
     }
@@ -120,10 +172,7 @@ class CardValidatorServiceTest {
     @Test
     void validateCardMatchWithUser_whenHasCardsAndOwnerDoesNotMatch_shouldThrowCardOwnerException() {
         Card card = createCard();
-        Card existingCard = createCard();
-        existingCard.setOwner("Different Owner");
-        when(cardRepository.existsByUser_Id(card.getUser().getId())).thenReturn(true);
-        when(cardRepository.findFirstByUser_Id(card.getUser().getId())).thenReturn(existingCard);
+        when(cardRepository.findFirstByUser_Id(card.getUser().getId())).thenReturn(Optional.of(() -> "Different Owner"));
 
         assertThrows(CardOwnerException.class, () -> cardValidatorService.validateCardMatchWithUser(card));
     }
@@ -221,7 +270,7 @@ class CardValidatorServiceTest {
     void validateTransfer_whenFromExpired_shouldThrowCardExpiryDateException() {
         Card from = createCard();
         from.setBalance(BigDecimal.valueOf(100));
-        from.setStatus(CardStatus.ACTIVE);
+        from.setStatus(CardStatus.EXPIRED);
         from.setExpiryYear(2025);
         from.setExpiryMonth(10);
         Card to = createCard();
@@ -239,7 +288,7 @@ class CardValidatorServiceTest {
         from.setStatus(CardStatus.ACTIVE);
         from.setExpiryYear(2026);
         Card to = createCard();
-        to.setStatus(CardStatus.ACTIVE);
+        to.setStatus(CardStatus.EXPIRED);
         to.setExpiryYear(2025);
         to.setExpiryMonth(10);
         BigDecimal amount = BigDecimal.valueOf(50);
@@ -247,6 +296,22 @@ class CardValidatorServiceTest {
         assertThrows(CardExpiryDateException.class, () -> cardValidatorService.validateTransfer(from, to, amount));
     }
 
+    @Test
+    void ensureCardNotExpired_whenStatusExpired_shouldThrowCardExpiryDateException() {
+        Card card = createCard();
+        card.setStatus(CardStatus.EXPIRED);
+
+        assertThrows(CardExpiryDateException.class, () -> cardValidatorService.ensureCardNotExpired(card));
+    }
+
+    @Test
+    void ensureCardNotExpired_shouldRelyOnStoredStatusOnly() {
+        Card card = createCard();
+        card.setExpiryYear(2020);
+
+        assertDoesNotThrow(() -> cardValidatorService.ensureCardNotExpired(card));
+    }
+
     @Test
     void validateExpiryDate_whenNotExpired_shouldNotThrow() {
         Card card = createCard();
@@ -0,0 +1,58 @@
+package com.example.bankcards.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashServiceTest {
+
+    private static final String SECRET = "test-secret";
+    private static final String NUMBER = "4111111111111111";
+
+    private final HashService hashService = new HashService(SECRET, true);
+
+    @Test
+    void hmacSha256_shouldKeyHmacWithSecretAndPrefixVersion() throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String expected = "v2:" + Base64.getEncoder().encodeToString(mac.doFinal(NUMBER.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(expected, hashService.hmacSha256(NUMBER));
+    }
+
+    @Test
+    void legacyHmacSha256_shouldMatchPreviousScheme() throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(NUMBER.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String expected = Base64.getEncoder().encodeToString(mac.doFinal(SECRET.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(expected, hashService.legacyHmacSha256(NUMBER));
+    }
+
+    @Test
+    void lookupHashes_shouldIncludeLegacyHashOnlyWhenEnabled() {
+        assertEquals(List.of(hashService.hmacSha256(NUMBER), hashService.legacyHmacSha256(NUMBER)),
+                hashService.lookupHashes(NUMBER));
+        assertEquals(List.of(hashService.hmacSha256(NUMBER)),
+                new HashService(SECRET, false).lookupHashes(NUMBER));
+    }
+
+    @Test
+    void hmacSha256_underParallelUse_shouldStayDeterministic() {
+        Set<String> hashes = IntStream.range(0, 10_000)
+                .parallel()
+                .mapToObj(i -> hashService.hmacSha256(NUMBER))
+                .collect(Collectors.toSet());
+
+        assertEquals(Set.of(hashService.hmacSha256(NUMBER)), hashes);
+    }
+}
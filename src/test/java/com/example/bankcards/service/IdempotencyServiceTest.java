@@ -0,0 +1,204 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.MoneyTransferDto;
+import com.example.bankcards.entity.IdempotencyRecord;
+import com.example.bankcards.exception.CardException;
+import com.example.bankcards.exception.IdempotencyException;
+import com.example.bankcards.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String KEY_TOO_LONG = "Key too long";
+    private static final String KEY_REUSED = "Key reused";
+    private static final String RECORD_ID = "transfer:john_doe:key-1";
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private IdempotencyService idempotencyService;
+
+    private final MoneyTransferDto transfer = MoneyTransferDto.builder()
+            .fromCardId(UUID.randomUUID())
+            .toCardId(UUID.randomUUID())
+            .amount(BigDecimal.TEN)
+            .build();
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(repository, transactionTemplate, new ObjectMapper(),
+                Duration.ofHours(24), 100, 10, KEY_TOO_LONG, KEY_REUSED);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("john_doe", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void execute_withoutKey_shouldRunActionWithoutLookup() {
+        ResponseEntity<String> response = idempotencyService.execute("transfer", null, transfer, this::transferAction);
+
+        assertEquals("done", response.getBody());
+        assertEquals(1, executions.get());
+        verifyNoInteractions(repository, transactionTemplate);
+    }
+
+    @Test
+    void execute_firstTime_shouldRunActionAndStoreResponse() {
+        runTransactionCallbacks();
+        when(repository.findById(RECORD_ID)).thenReturn(Optional.empty());
+        when(repository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+
+        ResponseEntity<String> response = idempotencyService.execute("transfer", "key-1", transfer, this::transferAction);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(1, executions.get());
+        verify(repository).saveAndFlush(captor.capture());
+        assertEquals(RECORD_ID, captor.getValue().getId());
+        assertEquals("done", captor.getValue().getResponseBody());
+        assertEquals(64, captor.getValue().getRequestHash().length());
+    }
+
+    @Test
+    void execute_retry_shouldReplayFromCacheWithoutRunningAction() {
+        runTransactionCallbacks();
+        when(repository.findById(RECORD_ID)).thenReturn(Optional.empty());
+        when(repository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        idempotencyService.execute("transfer", "key-1", transfer, this::transferAction);
+        ResponseEntity<String> replayed = idempotencyService.execute("transfer", "key-1", transfer, this::transferAction);
+
+        assertEquals("done", replayed.getBody());
+        assertEquals(1, executions.get());
+        verify(repository, times(1)).findById(RECORD_ID);
+    }
+
+    @Test
+    void execute_storedRecord_shouldReplayWithoutRunningAction() {
+        IdempotencyRecord stored = storedRecordFor(transfer);
+        when(repository.findById(RECORD_ID)).thenReturn(Optional.of(stored));
+
+        ResponseEntity<String> response = idempotencyService.execute("transfer", "key-1", transfer, this::transferAction);
+
+        assertEquals("done", response.getBody());
+        assertEquals(0, executions.get());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    void execute_sameKeyDifferentRequest_shouldThrowIdempotencyException() {
+        when(repository.findById(RECORD_ID)).thenReturn(Optional.of(storedRecordFor(transfer)));
+        MoneyTransferDto other = MoneyTransferDto.builder()
+                .fromCardId(transfer.getFromCardId())
+                .toCardId(transfer.getToCardId())
+                .amount(BigDecimal.ONE)
+                .build();
+
+        IdempotencyException thrown = assertThrows(IdempotencyException.class,
+                () -> idempotencyService.execute("transfer", "key-1", other, this::transferAction));
+
+        assertEquals(KEY_REUSED, thrown.getMessage());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void execute_concurrentDuplicate_shouldReplayWinningResponse() {
+        runTransactionCallbacks();
+        IdempotencyRecord stored = storedRecordFor(transfer);
+        when(repository.findById(RECORD_ID)).thenReturn(Optional.empty(), Optional.of(stored));
+        when(repository.saveAndFlush(any(IdempotencyRecord.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        ResponseEntity<String> response = idempotencyService.execute("transfer", "key-1", transfer, this::transferAction);
+
+        assertEquals("done", response.getBody());
+    }
+
+    @Test
+    void execute_whenActionFails_shouldNotStoreResponse() {
+        runTransactionCallbacks();
+        when(repository.findById(RECORD_ID)).thenReturn(Optional.empty());
+
+        assertThrows(CardException.class, () -> idempotencyService.execute("transfer", "key-1", transfer,
+                () -> {
+                    throw new CardException("Insufficient funds");
+                }));
+
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void execute_withTooLongKey_shouldThrowIdempotencyException() {
+        IdempotencyException thrown = assertThrows(IdempotencyException.class,
+                () -> idempotencyService.execute("transfer", "k".repeat(11), transfer, this::transferAction));
+
+        assertEquals(KEY_TOO_LONG, thrown.getMessage());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void removeExpired_shouldDeleteRecordsOlderThanTtl() {
+        when(repository.deleteCreatedBefore(any(Instant.class))).thenReturn(3);
+
+        assertEquals(3, idempotencyService.removeExpired());
+    }
+
+    private ResponseEntity<String> transferAction() {
+        executions.incrementAndGet();
+        return ResponseEntity.ok("done");
+    }
+
+    private IdempotencyRecord storedRecordFor(MoneyTransferDto request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(new ObjectMapper().writeValueAsBytes(request));
+            return IdempotencyRecord.builder()
+                    .id(RECORD_ID)
+                    .requestHash(HexFormat.of().formatHex(digest))
+                    .responseStatus(200)
+                    .responseBody("done")
+                    .createdAt(Instant.now())
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void runTransactionCallbacks() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+}
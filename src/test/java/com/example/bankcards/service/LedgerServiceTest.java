@@ -0,0 +1,212 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.MoneyTransferDto;
+import com.example.bankcards.dto.StatementDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardBalanceSnapshot;
+import com.example.bankcards.entity.LedgerEntry;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.exception.StatementPeriodException;
+import com.example.bankcards.repository.CardBalanceSnapshotRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private CardBalanceSnapshotRepository snapshotRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardValidatorService cardValidatorService;
+
+    @Mock
+    private UserService userService;
+
+    private LedgerService ledgerService;
+
+    private UUID cardId;
+    private UUID userId;
+    private Card card;
+    private User user;
+    private Instant at;
+
+    @BeforeEach
+    void setUp() {
+        ledgerService = new LedgerService(ledgerEntryRepository, snapshotRepository, cardRepository,
+                cardValidatorService, userService, "Statement period start must not be after its end");
+        cardId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        user = new User();
+        user.setId(userId);
+        card = Card.builder()
+                .id(cardId)
+                .balance(BigDecimal.valueOf(1000))
+                .user(user)
+                .build();
+        at = Instant.parse("2026-01-15T10:00:00Z");
+    }
+
+    @Test
+    void recordTransfer_shouldWriteBalancedDebitAndCreditEntries() {
+        Card toCard = Card.builder().id(UUID.randomUUID()).build();
+        ArgumentCaptor<List<LedgerEntry>> captor = ArgumentCaptor.forClass(List.class);
+
+        ledgerService.recordTransfer(card, toCard, BigDecimal.valueOf(250));
+
+        verify(ledgerEntryRepository).saveAll(captor.capture());
+        List<LedgerEntry> entries = captor.getValue();
+        assertEquals(2, entries.size());
+        assertEquals(cardId, entries.get(0).getCardId());
+        assertEquals(BigDecimal.valueOf(-250), entries.get(0).getAmount());
+        assertEquals(toCard.getId(), entries.get(1).getCardId());
+        assertEquals(BigDecimal.valueOf(250), entries.get(1).getAmount());
+        assertEquals(entries.get(0).getTransferId(), entries.get(1).getTransferId());
+    }
+
+    @Test
+    void recordTransfers_shouldWriteAllEntriesInOneCall() {
+        UUID toCardId = UUID.randomUUID();
+        List<MoneyTransferDto> transfers = List.of(
+                new MoneyTransferDto(cardId, toCardId, BigDecimal.ONE),
+                new MoneyTransferDto(toCardId, cardId, BigDecimal.TEN));
+        ArgumentCaptor<List<LedgerEntry>> captor = ArgumentCaptor.forClass(List.class);
+
+        ledgerService.recordTransfers(transfers);
+
+        verify(ledgerEntryRepository, times(1)).saveAll(captor.capture());
+        List<LedgerEntry> entries = captor.getValue();
+        assertEquals(4, entries.size());
+        assertEquals(BigDecimal.valueOf(-10), entries.get(2).getAmount());
+        assertNotEquals(entries.get(0).getTransferId(), entries.get(2).getTransferId());
+    }
+
+    @Test
+    void openCards_shouldSaveAllSnapshotsAtOnce() {
+        ArgumentCaptor<List<CardBalanceSnapshot>> captor = ArgumentCaptor.forClass(List.class);
+
+        ledgerService.openCards(List.of(card, card));
+
+        verify(snapshotRepository).saveAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals(captor.getValue().get(0).getTakenAt(), captor.getValue().get(1).getTakenAt());
+    }
+
+    @Test
+    void takeSnapshot_shouldStoreCurrentBalanceOfLockedCard() {
+        when(cardRepository.findLockedById(cardId)).thenReturn(Optional.of(card));
+        ArgumentCaptor<CardBalanceSnapshot> captor = ArgumentCaptor.forClass(CardBalanceSnapshot.class);
+
+        ledgerService.takeSnapshot(cardId);
+
+        verify(snapshotRepository).save(captor.capture());
+        assertEquals(cardId, captor.getValue().getCardId());
+        assertEquals(BigDecimal.valueOf(1000), captor.getValue().getBalance());
+    }
+
+    @Test
+    void balanceAt_withSnapshot_shouldAddTailAfterSnapshot() {
+        Instant takenAt = at.minusSeconds(3600);
+        CardBalanceSnapshot snapshot = CardBalanceSnapshot.builder()
+                .cardId(cardId)
+                .balance(BigDecimal.valueOf(700))
+                .takenAt(takenAt)
+                .build();
+        when(snapshotRepository.findFirstByCardIdAndTakenAtLessThanEqualOrderByTakenAtDesc(cardId, at))
+                .thenReturn(Optional.of(snapshot));
+        when(ledgerEntryRepository.sumAmountBetween(cardId, takenAt, at)).thenReturn(BigDecimal.valueOf(-200));
+
+        BigDecimal result = ledgerService.balanceAt(cardId, at);
+
+        assertEquals(BigDecimal.valueOf(500), result);
+        verify(cardRepository, never()).findById(any());
+    }
+
+    @Test
+    void balanceAt_withoutSnapshot_shouldRewindCurrentBalance() {
+        when(snapshotRepository.findFirstByCardIdAndTakenAtLessThanEqualOrderByTakenAtDesc(cardId, at))
+                .thenReturn(Optional.empty());
+        when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
+        when(cardValidatorService.ensureCardFound(Optional.of(card))).thenReturn(card);
+        when(ledgerEntryRepository.sumAmountAfter(cardId, at)).thenReturn(BigDecimal.valueOf(300));
+
+        BigDecimal result = ledgerService.balanceAt(cardId, at);
+
+        assertEquals(BigDecimal.valueOf(700), result);
+    }
+
+    @Test
+    void getStatement_shouldReturnOpeningClosingAndEntries() {
+        Instant to = at.plusSeconds(86400);
+        LedgerEntry debit = LedgerEntry.builder()
+                .transferId(UUID.randomUUID())
+                .cardId(cardId)
+                .amount(BigDecimal.valueOf(-100))
+                .createdAt(at.plusSeconds(60))
+                .build();
+        LedgerEntry credit = LedgerEntry.builder()
+                .transferId(UUID.randomUUID())
+                .cardId(cardId)
+                .amount(BigDecimal.valueOf(40))
+                .createdAt(at.plusSeconds(120))
+                .build();
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findCardByIdAndUser_Id(cardId, userId)).thenReturn(Optional.of(card));
+        when(snapshotRepository.findFirstByCardIdAndTakenAtLessThanEqualOrderByTakenAtDesc(cardId, at))
+                .thenReturn(Optional.of(CardBalanceSnapshot.builder()
+                        .cardId(cardId)
+                        .balance(BigDecimal.valueOf(1000))
+                        .takenAt(at)
+                        .build()));
+        when(ledgerEntryRepository.sumAmountBetween(cardId, at, at)).thenReturn(BigDecimal.ZERO);
+        when(ledgerEntryRepository.findByCardIdAndCreatedAtGreaterThanAndCreatedAtLessThanEqualOrderByCreatedAt(cardId, at, to))
+                .thenReturn(List.of(debit, credit));
+
+        StatementDto statement = ledgerService.getStatement(cardId, at, to);
+
+        assertEquals(BigDecimal.valueOf(1000), statement.getOpeningBalance());
+        assertEquals(BigDecimal.valueOf(940), statement.getClosingBalance());
+        assertEquals(2, statement.getEntries().size());
+    }
+
+    @Test
+    void getStatement_whenCardNotOwned_shouldThrowCardNotFoundException() {
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(cardRepository.findCardByIdAndUser_Id(cardId, userId)).thenReturn(Optional.empty());
+        when(cardValidatorService.ensureCardFound(Optional.empty())).thenThrow(new CardNotFoundException("not found"));
+
+        assertThrows(CardNotFoundException.class, () -> ledgerService.getStatement(cardId, at, at.plusSeconds(60)));
+    }
+
+    @Test
+    void getStatement_whenFromIsAfterTo_shouldThrowStatementPeriodException() {
+        StatementPeriodException ex = assertThrows(StatementPeriodException.class,
+                () -> ledgerService.getStatement(cardId, at, at.minusSeconds(1)));
+
+        assertEquals("from", ex.getField());
+        verifyNoInteractions(userService, cardRepository, ledgerEntryRepository, snapshotRepository);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.bankcards.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketIntakeQueueTest {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(10);
+
+    private final TicketIntakeQueue queue = new TicketIntakeQueue(new SimpleMeterRegistry(), 2);
+
+    @Test
+    void offer_withRequestAlreadyQueued_shouldNotQueueItTwice() throws Exception {
+        UUID requestId = UUID.randomUUID();
+
+        assertTrue(queue.offer(requestId));
+        assertTrue(queue.offer(requestId));
+
+        assertEquals(List.of(requestId), queue.poll(10, TIMEOUT));
+    }
+
+    @Test
+    void offer_withRequestBeingProcessed_shouldSkipItUntilReleased() throws Exception {
+        UUID requestId = UUID.randomUUID();
+        queue.offer(requestId);
+        List<UUID> batch = queue.poll(10, TIMEOUT);
+
+        queue.offer(requestId);
+        assertTrue(queue.poll(10, TIMEOUT).isEmpty());
+
+        queue.release(batch);
+        queue.offer(requestId);
+        assertEquals(List.of(requestId), queue.poll(10, TIMEOUT));
+    }
+
+    @Test
+    void offer_whenFull_shouldRejectAndAllowLaterRetry() throws Exception {
+        UUID rejected = UUID.randomUUID();
+        queue.offer(UUID.randomUUID());
+        queue.offer(UUID.randomUUID());
+
+        assertFalse(queue.offer(rejected));
+
+        queue.poll(1, TIMEOUT);
+        assertTrue(queue.offer(rejected));
+    }
+}
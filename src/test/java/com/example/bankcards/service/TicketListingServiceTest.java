@@ -0,0 +1,81 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TicketPageDto;
+import com.example.bankcards.repository.TicketRepository;
+import com.example.bankcards.repository.TicketRepository.TicketView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TicketListingServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    private TicketListingService ticketListingService;
+
+    @BeforeEach
+    void setUp() {
+        ticketListingService = new TicketListingService(ticketRepository, 2, 3);
+    }
+
+    @Test
+    void findTicketsPage_withoutCursor_shouldReturnFirstPageWithNextCursor() {
+        TicketView first = view();
+        TicketView second = view();
+        when(ticketRepository.findPage(null, null, null, Limit.of(2))).thenReturn(List.of(first, second));
+
+        TicketPageDto result = ticketListingService.findTicketsPage(null, null, null, null);
+
+        assertEquals(2, result.getTickets().size());
+        assertEquals(first.getCardId(), result.getTickets().get(0).getCardId());
+        assertEquals(second.getId(), result.getNextCursor());
+    }
+
+    @Test
+    void findTicketsPage_withFiltersAndLargeSize_shouldCapSizeAndEndWithoutCursor() {
+        UUID after = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        UUID cardId = UUID.randomUUID();
+        TicketView ticket = view();
+        when(ticketRepository.findPage(after, userId, cardId, Limit.of(3))).thenReturn(List.of(ticket));
+
+        TicketPageDto result = ticketListingService.findTicketsPage(after, userId, cardId, 100);
+
+        assertEquals(1, result.getTickets().size());
+        assertEquals(ticket.getUserId(), result.getTickets().get(0).getUserId());
+        assertNull(result.getNextCursor());
+    }
+
+    private static TicketView view() {
+        UUID id = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        UUID cardId = UUID.randomUUID();
+        return new TicketView() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public UUID getCardId() {
+                return cardId;
+            }
+        };
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TicketDto;
+import com.example.bankcards.dto.TicketRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.TicketRequest;
+import com.example.bankcards.entity.TicketRequestStatus;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TicketRepository;
+import com.example.bankcards.repository.TicketRequestRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.scheduler.TicketIntakeWorker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"app.ticket.intake.poll-timeout=20ms", "app.ticket.intake.stale-after=0s"})
+@ActiveProfiles("h2")
+class TicketServiceIntakeTest {
+
+    private static final Duration AWAIT = Duration.ofSeconds(10);
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketIntakeWorker ticketIntakeWorker;
+
+    @Autowired
+    private TicketRequestRepository ticketRequestRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HashService hashService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = saveUser();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void submitTicket_shouldReturnPendingAndCreateTicketInBackground() throws Exception {
+        Card card = saveCard(user, CardStatus.ACTIVE);
+
+        TicketRequestDto submitted = ticketService.submitTicket(new TicketDto(card.getId()));
+
+        assertEquals(TicketRequestStatus.PENDING, submitted.getStatus());
+        TicketRequestDto processed = awaitProcessed(submitted.getTicketId());
+        assertEquals(TicketRequestStatus.ACCEPTED, processed.getStatus());
+        assertTrue(ticketRepository.existsById(submitted.getTicketId()));
+    }
+
+    @Test
+    void submitTicket_twiceForSameCard_shouldAcceptOnlyOne() throws Exception {
+        Card card = saveCard(user, CardStatus.ACTIVE);
+
+        UUID first = ticketService.submitTicket(new TicketDto(card.getId())).getTicketId();
+        UUID second = ticketService.submitTicket(new TicketDto(card.getId())).getTicketId();
+
+        assertEquals(TicketRequestStatus.ACCEPTED, awaitProcessed(first).getStatus());
+        TicketRequestDto rejected = awaitProcessed(second);
+        assertEquals(TicketRequestStatus.REJECTED, rejected.getStatus());
+        assertNotNull(rejected.getError());
+    }
+
+    @Test
+    void submitTicket_forForeignOrBlockedCard_shouldBeRejected() throws Exception {
+        Card foreign = saveCard(saveUser(), CardStatus.ACTIVE);
+        Card blocked = saveCard(user, CardStatus.BLOCKED);
+
+        UUID foreignRequest = ticketService.submitTicket(new TicketDto(foreign.getId())).getTicketId();
+        UUID blockedRequest = ticketService.submitTicket(new TicketDto(blocked.getId())).getTicketId();
+
+        assertEquals(TicketRequestStatus.REJECTED, awaitProcessed(foreignRequest).getStatus());
+        assertEquals(TicketRequestStatus.REJECTED, awaitProcessed(blockedRequest).getStatus());
+        assertFalse(ticketRepository.existsByCard_Id(foreign.getId()));
+    }
+
+    @Test
+    void requeueStaleRequests_shouldPickUpRequestsMissingFromQueue() throws Exception {
+        Card card = saveCard(user, CardStatus.ACTIVE);
+        TicketRequest orphan = ticketRequestRepository.save(TicketRequest.builder()
+                .id(UUID.randomUUID())
+                .userId(user.getId())
+                .cardId(card.getId())
+                .status(TicketRequestStatus.PENDING)
+                .createdAt(Instant.now().minusSeconds(60))
+                .build());
+
+        ticketIntakeWorker.requeueStaleRequests();
+
+        assertEquals(TicketRequestStatus.ACCEPTED, awaitProcessed(orphan.getId()).getStatus());
+    }
+
+    private TicketRequestDto awaitProcessed(UUID ticketId) throws InterruptedException {
+        long deadline = System.nanoTime() + AWAIT.toNanos();
+        while (System.nanoTime() < deadline) {
+            TicketRequestDto request = ticketService.getTicketRequest(ticketId);
+            if (request.getStatus() != TicketRequestStatus.PENDING) {
+                return request;
+            }
+            Thread.sleep(20);
+        }
+        return fail("Ticket request " + ticketId + " was not processed in " + AWAIT);
+    }
+
+    private User saveUser() {
+        return userRepository.save(User.builder()
+                .username("ticket-" + UUID.randomUUID())
+                .email(UUID.randomUUID() + "@example.com")
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build());
+    }
+
+    private Card saveCard(User cardUser, CardStatus status) {
+        String number = String.format("4000%012d", ThreadLocalRandom.current().nextLong(1_000_000_000_000L));
+        return cardRepository.save(Card.builder()
+                .id(UUID.randomUUID())
+                .number(number)
+                .numberHash(hashService.hmacSha256(number))
+                .owner("TICKET TEST")
+                .expiryMonth(12)
+                .expiryYear(LocalDate.now().getYear() + 3)
+                .status(status)
+                .balance(BigDecimal.ZERO)
+                .user(cardUser)
+                .build());
+    }
+}
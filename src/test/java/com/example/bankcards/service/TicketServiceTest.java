@@ -1,23 +1,39 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.TicketDto;
+import com.example.bankcards.dto.TicketRequestDto;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.Ticket;
+import com.example.bankcards.entity.TicketRequest;
+import com.example.bankcards.entity.TicketRequestStatus;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.CardOwnerException;
+import com.example.bankcards.exception.CardStatusException;
+import com.example.bankcards.exception.TicketAlreadyExistsException;
+import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TicketRepository;
+import com.example.bankcards.repository.TicketRequestRepository;
+import com.example.bankcards.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,7 +43,10 @@ class TicketServiceTest {
     private UserService userService;
 
     @Mock
-    private CardService cardService;
+    private UserRepository userRepository;
+
+    @Mock
+    private CardRepository cardRepository;
 
     @Mock
     private CardValidatorService cardValidatorService;
@@ -35,25 +54,28 @@ class TicketServiceTest {
     @Mock
     private TicketRepository ticketRepository;
 
+    @Mock
+    private TicketRequestRepository ticketRequestRepository;
+
     @Mock
     private TicketValidatorService ticketValidatorService;
 
+    @Mock
+    private TicketIntakeQueue ticketIntakeQueue;
+
     @InjectMocks
     private TicketService ticketService;
 
     private UUID cardId;
     private UUID userId;
-    private UUID ticketId;
     private Card card;
     private User user;
-    private Ticket ticket;
     private TicketDto ticketDto;
 
     @BeforeEach
     void setUp() {
         cardId = UUID.randomUUID();
         userId = UUID.randomUUID();
-        ticketId = UUID.randomUUID();
 
         user = new User();
         user.setId(userId);
@@ -64,37 +86,147 @@ class TicketServiceTest {
                 .user(user)
                 .build();
 
-        ticket = Ticket.builder()
-                .id(ticketId)
-                .user(user)
-                .card(card)
-                .build();
-
         ticketDto = new TicketDto(cardId);
     }
 
     @Test
-    void createTicket_shouldCreateAndSaveTicket() {
-        doNothing().when(ticketValidatorService).validateTicketExistByCardId(cardId);
-        when(cardService.findCardById(cardId)).thenReturn(card);
-        doNothing().when(cardValidatorService).validateCardMatchWithUser(card);
-        doNothing().when(cardValidatorService).validateCardStatus(card, CardStatus.ACTIVE);
+    void submitTicket_shouldStorePendingRequestAndEnqueueIt() {
         when(userService.getCurrentUser()).thenReturn(user);
-        when(ticketRepository.save(any(Ticket.class))).thenReturn(ticket);
+        when(ticketRequestRepository.save(any(TicketRequest.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        ticketService.createTicket(ticketDto);
+        TicketRequestDto result = ticketService.submitTicket(ticketDto);
 
-        verify(ticketRepository).save(any(Ticket.class));
+        assertEquals(TicketRequestStatus.PENDING, result.getStatus());
+        assertEquals(cardId, result.getCardId());
+        assertNotNull(result.getTicketId());
+        verify(ticketIntakeQueue).offer(result.getTicketId());
+        verifyNoInteractions(cardRepository, ticketRepository);
     }
 
     @Test
-    void getAllTickets_shouldReturnListOfTicketDto() {
-        List<Ticket> tickets = List.of(ticket);
-        when(ticketRepository.findAll()).thenReturn(tickets);
+    void processBatch_shouldCreateTicketsForValidRequests() {
+        TicketRequest request = pendingRequest(cardId);
+        when(ticketRequestRepository.findByIdInAndStatus(List.of(request.getId()), TicketRequestStatus.PENDING))
+                .thenReturn(List.of(request));
+        when(cardRepository.findAllById(Set.of(cardId))).thenReturn(List.of(card));
+        when(ticketRepository.findCardIdsWithTickets(Set.of(cardId))).thenReturn(Set.of());
+        when(cardValidatorService.ensureCardFound(Optional.of(card))).thenReturn(card);
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+
+        assertEquals(1, ticketService.processBatch(List.of(request.getId())));
+
+        assertEquals(TicketRequestStatus.ACCEPTED, request.getStatus());
+        assertNotNull(request.getProcessedAt());
+        ArgumentCaptor<List<Ticket>> captor = ArgumentCaptor.captor();
+        verify(ticketRepository).saveAll(captor.capture());
+        assertEquals(request.getId(), captor.getValue().get(0).getId());
+    }
+
+    @Test
+    void processBatch_shouldRejectInvalidRequestsWithReason() {
+        TicketRequest foreign = pendingRequest(cardId);
+        TicketRequest blocked = pendingRequest(cardId);
+        when(ticketRequestRepository.findByIdInAndStatus(anyCollection(), eq(TicketRequestStatus.PENDING)))
+                .thenReturn(List.of(foreign, blocked));
+        when(cardRepository.findAllById(Set.of(cardId))).thenReturn(List.of(card));
+        when(cardValidatorService.ensureCardFound(Optional.of(card))).thenReturn(card);
+        doThrow(new CardOwnerException("Wrong owner"))
+                .doNothing()
+                .when(cardValidatorService).validateCardBelongsToUser(card, userId);
+        doThrow(new CardStatusException("Invalid card status"))
+                .when(cardValidatorService).validateCardStatus(card, CardStatus.ACTIVE);
+
+        assertEquals(0, ticketService.processBatch(List.of(foreign.getId(), blocked.getId())));
+
+        assertEquals(TicketRequestStatus.REJECTED, foreign.getStatus());
+        assertEquals("Wrong owner", foreign.getError());
+        assertEquals("Invalid card status", blocked.getError());
+        verify(ticketRepository).saveAll(List.of());
+    }
+
+    @Test
+    void processBatch_withDuplicateCardInBatch_shouldAcceptOnlyFirst() {
+        TicketRequest first = pendingRequest(cardId);
+        TicketRequest second = pendingRequest(cardId);
+        when(ticketRequestRepository.findByIdInAndStatus(anyCollection(), eq(TicketRequestStatus.PENDING)))
+                .thenReturn(List.of(first, second));
+        when(cardRepository.findAllById(Set.of(cardId))).thenReturn(List.of(card));
+        when(ticketRepository.findCardIdsWithTickets(Set.of(cardId))).thenReturn(Set.of());
+        when(cardValidatorService.ensureCardFound(Optional.of(card))).thenReturn(card);
+        doNothing()
+                .doThrow(new TicketAlreadyExistsException("Ticket exists"))
+                .when(ticketValidatorService).validateTicketExistByCardId(eq(cardId), anySet());
+
+        assertEquals(1, ticketService.processBatch(List.of(first.getId(), second.getId())));
+
+        assertEquals(TicketRequestStatus.ACCEPTED, first.getStatus());
+        assertEquals(TicketRequestStatus.REJECTED, second.getStatus());
+    }
+
+    @Test
+    void processBatch_whenNothingPending_shouldSkipLookups() {
+        when(ticketRequestRepository.findByIdInAndStatus(anyCollection(), eq(TicketRequestStatus.PENDING)))
+                .thenReturn(List.of());
+
+        assertEquals(0, ticketService.processBatch(List.of(UUID.randomUUID())));
+
+        verifyNoInteractions(cardRepository, ticketRepository);
+    }
 
-        List<TicketDto> result = ticketService.getAllTickets();
+    @Test
+    void getTicketRequest_shouldLookUpWithinCurrentUser() {
+        TicketRequest request = pendingRequest(cardId);
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(ticketRequestRepository.findByIdAndUserId(request.getId(), userId)).thenReturn(Optional.of(request));
+        when(ticketValidatorService.ensureTicketRequestFound(Optional.of(request))).thenReturn(request);
+
+        TicketRequestDto result = ticketService.getTicketRequest(request.getId());
+
+        assertEquals(request.getId(), result.getTicketId());
+        assertEquals(TicketRequestStatus.PENDING, result.getStatus());
+    }
+
+    private TicketRequest pendingRequest(UUID requestCardId) {
+        return TicketRequest.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .cardId(requestCardId)
+                .status(TicketRequestStatus.PENDING)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    @Test
+    void recordFailedAttempt_belowCap_shouldKeepRequestPending() {
+        TicketRequest request = pendingRequest(cardId);
+        when(ticketRequestRepository.findByIdAndStatus(request.getId(), TicketRequestStatus.PENDING))
+                .thenReturn(Optional.of(request));
+
+        assertFalse(ticketService.recordFailedAttempt(request.getId(), 3, "failed"));
+
+        assertEquals(TicketRequestStatus.PENDING, request.getStatus());
+        assertEquals(1, request.getAttempts());
+    }
+
+    @Test
+    void recordFailedAttempt_atCap_shouldMarkRequestFailed() {
+        TicketRequest request = pendingRequest(cardId);
+        request.setAttempts(2);
+        when(ticketRequestRepository.findByIdAndStatus(request.getId(), TicketRequestStatus.PENDING))
+                .thenReturn(Optional.of(request));
+
+        assertTrue(ticketService.recordFailedAttempt(request.getId(), 3, "failed"));
+
+        assertEquals(TicketRequestStatus.FAILED, request.getStatus());
+        assertEquals("failed", request.getError());
+        assertNotNull(request.getProcessedAt());
+    }
+
+    @Test
+    void recordFailedAttempt_forProcessedRequest_shouldDoNothing() {
+        UUID requestId = UUID.randomUUID();
+        when(ticketRequestRepository.findByIdAndStatus(requestId, TicketRequestStatus.PENDING)).thenReturn(Optional.empty());
 
-        assertEquals(1, result.size());
-        assertEquals(cardId, result.get(0).getCardId());
+        assertFalse(ticketService.recordFailedAttempt(requestId, 3, "failed"));
     }
-}
\ No newline at end of file
+}
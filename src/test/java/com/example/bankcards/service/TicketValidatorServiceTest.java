@@ -1,6 +1,7 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.exception.TicketAlreadyExistsException;
+import com.example.bankcards.exception.TicketNotFoundException;
 import com.example.bankcards.repository.TicketRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,9 +10,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,7 +31,7 @@ class TicketValidatorServiceTest {
 
     @BeforeEach
     void setUp() {
-        ticketValidatorService = new TicketValidatorService(ticketRepository, exceptionMessage);
+        ticketValidatorService = new TicketValidatorService(ticketRepository, exceptionMessage, "Ticket request not found");
     }
 
     @Test
@@ -46,4 +50,22 @@ class TicketValidatorServiceTest {
         assertThrows(TicketAlreadyExistsException.class,
                 () -> ticketValidatorService.validateTicketExistByCardId(cardId));
     }
-}
\ No newline at end of file
+
+    @Test
+    void validateTicketExistByCardId_whenCardAlreadyTicketed_shouldThrowWithoutQuery() {
+        UUID cardId = UUID.randomUUID();
+
+        assertThrows(TicketAlreadyExistsException.class,
+                () -> ticketValidatorService.validateTicketExistByCardId(cardId, Set.of(cardId)));
+        assertDoesNotThrow(() -> ticketValidatorService.validateTicketExistByCardId(UUID.randomUUID(), Set.of(cardId)));
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    void ensureTicketRequestFound_whenMissing_shouldThrowTicketNotFoundException() {
+        TicketNotFoundException thrown = assertThrows(TicketNotFoundException.class,
+                () -> ticketValidatorService.ensureTicketRequestFound(Optional.empty()));
+
+        assertEquals("Ticket request not found", thrown.getMessage());
+    }
+}
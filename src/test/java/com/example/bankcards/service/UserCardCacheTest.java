@@ -0,0 +1,139 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardSliceDto;
+import com.example.bankcards.entity.CardStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCardCacheTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCardCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserCardCache(meterRegistry, true, 100, 2, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_shouldLoadOnceAndCountHitsAndMisses() {
+        CardSliceDto first = cache.get(userId, CardStatus.ACTIVE, 0, 2, this::load);
+        CardSliceDto second = cache.get(userId, CardStatus.ACTIVE, 0, 2, this::load);
+        cache.get(userId, CardStatus.BLOCKED, 0, 2, this::load);
+
+        assertSame(first, second);
+        assertEquals(2, loads.get());
+        assertEquals(1, lookups("hit"));
+        assertEquals(2, lookups("miss"));
+    }
+
+    @Test
+    void invalidate_withoutTransaction_shouldDropUserPagesImmediately() {
+        cache.get(userId, null, 0, 2, this::load);
+        cache.get(UUID.randomUUID(), null, 0, 2, this::load);
+
+        cache.invalidate(userId);
+        cache.get(userId, null, 0, 2, this::load);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void invalidate_insideTransaction_shouldWaitForCompletion() {
+        cache.get(userId, null, 0, 2, this::load);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidate(userId);
+        cache.get(userId, null, 0, 2, this::load);
+        assertEquals(1, loads.get());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        cache.get(userId, null, 0, 2, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_whenInvalidatedWhileLoading_shouldNotKeepStaleResult() {
+        cache.get(userId, null, 0, 2, () -> {
+            cache.invalidate(userId);
+            return load();
+        });
+
+        cache.get(userId, null, 0, 2, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_whenPageLimitReached_shouldStartOverForUser() {
+        cache.get(userId, null, 0, 2, this::load);
+        cache.get(userId, null, 1, 2, this::load);
+        cache.get(userId, null, 2, 2, this::load);
+
+        cache.get(userId, null, 2, 2, this::load);
+        cache.get(userId, null, 0, 2, this::load);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void invalidateAll_shouldDropEveryUser() {
+        UUID otherUser = UUID.randomUUID();
+        cache.get(userId, null, 0, 2, this::load);
+        cache.get(otherUser, null, 0, 2, this::load);
+
+        cache.invalidateAll();
+        cache.get(userId, null, 0, 2, this::load);
+        cache.get(otherUser, null, 0, 2, this::load);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void get_whenDisabled_shouldAlwaysLoad() {
+        SimpleMeterRegistry disabledRegistry = new SimpleMeterRegistry();
+        UserCardCache disabled = new UserCardCache(disabledRegistry, false, 100, 2, Duration.ofMinutes(1));
+
+        disabled.get(userId, null, 0, 2, this::load);
+        disabled.get(userId, null, 0, 2, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, lookups(disabledRegistry, "hit") + lookups(disabledRegistry, "miss"));
+    }
+
+    private CardSliceDto load() {
+        loads.incrementAndGet();
+        return CardSliceDto.builder().cards(List.of()).build();
+    }
+
+    private double lookups(String result) {
+        return lookups(meterRegistry, result);
+    }
+
+    private static double lookups(SimpleMeterRegistry registry, String result) {
+        return registry.get("bank.cards.user-cache").tag("result", result).counter().count();
+    }
+}
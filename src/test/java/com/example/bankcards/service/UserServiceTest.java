@@ -2,6 +2,7 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.entity.User;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.PrincipalCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,6 +31,9 @@ class UserServiceTest {
     @Mock
     private UserValidatorService userValidatorService;
 
+    @Mock
+    private PrincipalCache principalCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -52,6 +56,7 @@ class UserServiceTest {
 
         assertEquals(username, result.getUsername());
         verify(repository).save(user);
+        verify(principalCache).invalidate(username);
     }
 
     @Test
@@ -70,14 +75,13 @@ class UserServiceTest {
 
     @Test
     void getByUsername_shouldReturnUserWhenExists() {
-        doNothing().when(userValidatorService).validateUserExistByUsername(username);
         when(repository.findByUsername(username)).thenReturn(Optional.of(user));
+        when(userValidatorService.ensureUserFoundByUsername(Optional.of(user))).thenReturn(user);
 
         User result = userService.getByUsername(username);
 
         assertEquals(username, result.getUsername());
-        verify(userValidatorService).validateUserExistByUsername(username);
-        verify(repository).findByUsername(username);
+        verify(repository, times(1)).findByUsername(username);
     }
 
     @Test
@@ -89,8 +93,8 @@ class UserServiceTest {
 
     @Test
     void userDetailsService_shouldLoadUserByUsername() {
-        doNothing().when(userValidatorService).validateUserExistByUsername(username);
         when(repository.findByUsername(username)).thenReturn(Optional.of(user));
+        when(userValidatorService.ensureUserFoundByUsername(Optional.of(user))).thenReturn(user);
 
         UserDetailsService userDetailsService = userService.userDetailsService();
         User result = (User) userDetailsService.loadUserByUsername(username);
@@ -108,12 +112,29 @@ class UserServiceTest {
             when(securityContext.getAuthentication()).thenReturn(authentication);
             when(authentication.getName()).thenReturn(username);
 
-            doNothing().when(userValidatorService).validateUserExistByUsername(username);
             when(repository.findByUsername(username)).thenReturn(Optional.of(user));
+            when(userValidatorService.ensureUserFoundByUsername(Optional.of(user))).thenReturn(user);
 
             User result = userService.getCurrentUser();
 
             assertEquals(username, result.getUsername());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCurrentUser_whenPrincipalIsUser_shouldNotQueryRepository() {
+        try (MockedStatic<SecurityContextHolder> mockedStatic = mockStatic(SecurityContextHolder.class)) {
+            SecurityContext securityContext = mock(SecurityContext.class);
+            Authentication authentication = mock(Authentication.class);
+
+            mockedStatic.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getPrincipal()).thenReturn(user);
+
+            User result = userService.getCurrentUser();
+
+            assertSame(user, result);
+            verifyNoInteractions(repository, userValidatorService);
+        }
+    }
+}
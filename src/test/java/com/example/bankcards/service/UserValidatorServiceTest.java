@@ -1,5 +1,6 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.UserAlreadyExistException;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.repository.UserRepository;
@@ -9,6 +10,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -61,21 +64,27 @@ class UserValidatorServiceTest {
     }
 
     @Test
-    void validateUserExistByUsername_whenExists_shouldNotThrow() {
-        String username = "john_doe";
-        when(userRepository.existsByUsername(username)).thenReturn(true);
+    void validateUserExistsById_withKnownIds_shouldCheckWithoutQuery() {
+        UUID id = UUID.randomUUID();
 
-        assertDoesNotThrow(() -> userValidatorService.validateUserExistByUsername(username));
+        assertDoesNotThrow(() -> userValidatorService.validateUserExistsById(id, Set.of(id)));
+        assertThrows(UserNotFoundException.class,
+                () -> userValidatorService.validateUserExistsById(UUID.randomUUID(), Set.of(id)));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
-    void validateUserExistByUsername_whenNotExists_shouldThrowUserNotFoundException() {
-        String username = "unknown";
-        when(userRepository.existsByUsername(username)).thenReturn(false);
+    void ensureUserFoundByUsername_whenPresent_shouldReturnUser() {
+        User user = User.builder().username("john_doe").build();
 
+        assertSame(user, userValidatorService.ensureUserFoundByUsername(Optional.of(user)));
+    }
+
+    @Test
+    void ensureUserFoundByUsername_whenEmpty_shouldThrowUserNotFoundException() {
         UserNotFoundException thrown = assertThrows(
                 UserNotFoundException.class,
-                () -> userValidatorService.validateUserExistByUsername(username)
+                () -> userValidatorService.ensureUserFoundByUsername(Optional.empty())
         );
 
         assertEquals(NOT_FOUND_BY_USERNAME_MSG, thrown.getMessage());
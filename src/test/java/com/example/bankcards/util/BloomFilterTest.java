@@ -0,0 +1,49 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_shouldNeverMissInsertedValues() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        List<UUID> inserted = IntStream.range(0, 10_000).mapToObj(i -> UUID.randomUUID()).toList();
+
+        inserted.forEach(filter::put);
+
+        assertTrue(inserted.stream().allMatch(filter::mightContain));
+    }
+
+    @Test
+    void mightContain_shouldStayNearConfiguredFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put(UUID.randomUUID()));
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain(UUID.randomUUID()))
+                .count();
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void mightContain_onEmptyFilter_shouldReturnFalse() {
+        assertFalse(new BloomFilter(100, 0.01).mightContain(UUID.randomUUID()));
+    }
+
+    @Test
+    void put_fromManyThreads_shouldKeepEveryValue() {
+        BloomFilter filter = new BloomFilter(50_000, 0.01);
+        List<UUID> inserted = IntStream.range(0, 50_000).mapToObj(i -> UUID.randomUUID()).toList();
+
+        inserted.parallelStream().forEach(filter::put);
+
+        assertTrue(inserted.stream().allMatch(filter::mightContain));
+    }
+}
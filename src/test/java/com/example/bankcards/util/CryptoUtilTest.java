@@ -0,0 +1,102 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CryptoUtilTest {
+
+    private static final byte[] KEY = "12345678901234567890123456789012".getBytes(StandardCharsets.UTF_8);
+    private static final String NUMBER = "4111111111111111";
+
+    private CryptoUtil cryptoUtil;
+
+    @BeforeEach
+    void setUp() {
+        cryptoUtil = new CryptoUtil(KEY);
+    }
+
+    @Test
+    void encrypt_shouldRoundTrip() {
+        assertEquals(NUMBER, cryptoUtil.decrypt(cryptoUtil.encrypt(NUMBER)));
+    }
+
+    @Test
+    void encrypt_shouldProduceVersionedSingleBase64Envelope() {
+        String ciphertext = cryptoUtil.encrypt(NUMBER);
+
+        byte[] envelope = Base64.getDecoder().decode(ciphertext);
+        assertFalse(ciphertext.contains(":"));
+        assertEquals(1, envelope[0]);
+        assertEquals(1 + 12 + NUMBER.length() + 16, envelope.length);
+    }
+
+    @Test
+    void encrypt_shouldUseFreshIvForEveryCall() {
+        assertNotEquals(cryptoUtil.encrypt(NUMBER), cryptoUtil.encrypt(NUMBER));
+    }
+
+    @Test
+    void decrypt_shouldReadLegacyIvColonCiphertextFormat() throws Exception {
+        byte[] iv = new byte[12];
+        new SecureRandom().nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(KEY, "AES"), new GCMParameterSpec(128, iv));
+        String legacy = Base64.getEncoder().encodeToString(iv)
+                + ":"
+                + Base64.getEncoder().encodeToString(cipher.doFinal(NUMBER.getBytes()));
+
+        assertEquals(NUMBER, cryptoUtil.decrypt(legacy));
+    }
+
+    @Test
+    void decrypt_withTamperedCiphertext_shouldThrow() {
+        byte[] envelope = Base64.getDecoder().decode(cryptoUtil.encrypt(NUMBER));
+        envelope[envelope.length - 1] ^= 1;
+
+        assertThrows(RuntimeException.class,
+                () -> cryptoUtil.decrypt(Base64.getEncoder().encodeToString(envelope)));
+        assertEquals(NUMBER, cryptoUtil.decrypt(cryptoUtil.encrypt(NUMBER)));
+    }
+
+    @Test
+    void decrypt_withUnknownVersion_shouldThrow() {
+        byte[] envelope = Base64.getDecoder().decode(cryptoUtil.encrypt(NUMBER));
+        envelope[0] = 2;
+
+        assertThrows(RuntimeException.class,
+                () -> cryptoUtil.decrypt(Base64.getEncoder().encodeToString(envelope)));
+    }
+
+    @Test
+    void encryptAndDecrypt_fromManyThreads_shouldRoundTrip() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> tasks = IntStream.range(0, 2000)
+                    .mapToObj(i -> (Callable<Boolean>) () -> {
+                        String number = String.format("4000%012d", i);
+                        return number.equals(cryptoUtil.decrypt(cryptoUtil.encrypt(number)));
+                    })
+                    .toList();
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}